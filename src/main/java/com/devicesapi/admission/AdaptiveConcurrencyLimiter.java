@@ -0,0 +1,117 @@
+package com.devicesapi.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that adapts to observed latency, in the style of a gradient limiter.
+ * <p>
+ * A slow-moving average of response times serves as the baseline. Each completed request
+ * compares its own time against it: while they match, the limit grows by roughly its
+ * square root, and as responses slow down it shrinks in proportion. Requests that fail
+ * because the database is overloaded additionally cut the limit multiplicatively, the
+ * AIMD part, so a saturated pool backs off even before latency catches up.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final int BASELINE_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile double limit;
+    private double baselineNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Claims a slot if one is free. A successful call must be followed by exactly one of
+     * {@link #onSuccess}, {@link #onDropped} or {@link #onIgnore}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= getLimit()) {
+                rejected.increment();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** Releases a slot and feeds the request's response time into the limit. */
+    public void onSuccess(long rttNanos) {
+        update(rttNanos, inflight.getAndDecrement());
+    }
+
+    /** Releases a slot for a request that failed because the backend is overloaded. */
+    public synchronized void onDropped() {
+        inflight.decrementAndGet();
+        dropped.increment();
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+    }
+
+    /** Releases a slot without learning anything from the request. */
+    public void onIgnore() {
+        inflight.decrementAndGet();
+    }
+
+    /** Counts a request turned away before reaching this limiter, e.g. to favour a higher priority class. */
+    public void onRejected() {
+        rejected.increment();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private synchronized void update(long rttNanos, int inflightAtCompletion) {
+        double rtt = Math.max(1, rttNanos);
+        if (baselineNanos == 0) {
+            baselineNanos = rtt;
+        } else {
+            baselineNanos += (rtt - baselineNanos) / BASELINE_WINDOW;
+        }
+        // After a long slowdown the baseline has drifted up; let it recover quickly once
+        // responses are fast again instead of waiting out the whole window.
+        if (baselineNanos > rtt * 2) {
+            baselineNanos = (baselineNanos + rtt) / 2;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * baselineNanos / rtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        // Only grow while the limit is actually in use; an idle limit says nothing about capacity.
+        if (inflightAtCompletion * 2 < limit) {
+            target = Math.min(target, limit);
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+}
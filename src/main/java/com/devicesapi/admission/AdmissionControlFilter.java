@@ -0,0 +1,127 @@
+package com.devicesapi.admission;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sheds device API requests before they can pile up on the connection pool.
+ * <p>
+ * Every {@link EndpointClass} has its own {@link AdaptiveConcurrencyLimiter}. On top of
+ * that, a class is also turned away while any higher priority class is using more than
+ * {@code devices.admission.yield-threshold} of its limit, so under pressure listings give
+ * way to writes and writes give way to point reads. Rejected requests get an immediate
+ * 503 with {@code Retry-After} rather than waiting in a queue.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    private final boolean enabled;
+    private final double yieldThreshold;
+    private final String retryAfterSeconds;
+    private final Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionControlFilter(@Value("${devices.admission.enabled:true}") boolean enabled,
+                                  @Value("${devices.admission.initial-limit:20}") int initialLimit,
+                                  @Value("${devices.admission.min-limit:2}") int minLimit,
+                                  @Value("${devices.admission.max-limit:200}") int maxLimit,
+                                  @Value("${devices.admission.yield-threshold:0.8}") double yieldThreshold,
+                                  @Value("${devices.admission.retry-after:1s}") Duration retryAfter) {
+        this.enabled = enabled;
+        this.yieldThreshold = yieldThreshold;
+        this.retryAfterSeconds = Long.toString(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            limiters.put(endpointClass, new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit));
+        }
+    }
+
+    public Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters() {
+        return Collections.unmodifiableMap(limiters);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || EndpointClass.of(request.getMethod(), request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request.getMethod(), request.getRequestURI());
+        AdaptiveConcurrencyLimiter limiter = limiters.get(endpointClass);
+        if (!admit(endpointClass, limiter)) {
+            log.debug("Shedding {} {} ({} limit {})", request.getMethod(), request.getRequestURI(),
+                    endpointClass, limiter.getLimit());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } catch (Throwable e) {
+            if (isOverload(e)) {
+                limiter.onDropped();
+            } else {
+                limiter.onIgnore();
+            }
+            throw e;
+        }
+        if (request.isAsyncStarted()) {
+            // A parked long poll returns here at once and then holds no thread or connection;
+            // its near-zero time would only drag the latency baseline down.
+            limiter.onIgnore();
+        } else {
+            limiter.onSuccess(System.nanoTime() - start);
+        }
+    }
+
+    private boolean admit(EndpointClass endpointClass, AdaptiveConcurrencyLimiter limiter) {
+        for (EndpointClass higher : EndpointClass.values()) {
+            if (higher == endpointClass) {
+                break;
+            }
+            AdaptiveConcurrencyLimiter other = limiters.get(higher);
+            if (other.getInflight() >= other.getLimit() * yieldThreshold) {
+                limiter.onRejected();
+                return false;
+            }
+        }
+        return limiter.tryAcquire();
+    }
+
+    // Pool timeouts and lock/statement timeouts mean the database is the bottleneck.
+    private static boolean isOverload(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,44 @@
+package com.devicesapi.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the state of every admission limiter, tagged by endpoint class, under
+ * {@code devices.admission.*} (see {@code /actuator/metrics}).
+ */
+@Component
+public class AdmissionMetrics implements MeterBinder {
+
+    private final AdmissionControlFilter admissionControlFilter;
+
+    public AdmissionMetrics(AdmissionControlFilter admissionControlFilter) {
+        this.admissionControlFilter = admissionControlFilter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        admissionControlFilter.limiters().forEach((endpointClass, limiter) -> {
+            String tag = endpointClass.name().toLowerCase();
+            Gauge.builder("devices.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("class", tag)
+                    .register(registry);
+            Gauge.builder("devices.admission.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                    .description("Requests currently admitted")
+                    .tag("class", tag)
+                    .register(registry);
+            FunctionCounter.builder("devices.admission.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                    .description("Requests shed with 503")
+                    .tag("class", tag)
+                    .register(registry);
+            FunctionCounter.builder("devices.admission.dropped", limiter, AdaptiveConcurrencyLimiter::getDropped)
+                    .description("Admitted requests that failed because the database was overloaded")
+                    .tag("class", tag)
+                    .register(registry);
+        });
+    }
+}
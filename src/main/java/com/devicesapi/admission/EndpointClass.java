@@ -0,0 +1,32 @@
+package com.devicesapi.admission;
+
+import java.util.regex.Pattern;
+
+/**
+ * Groups device endpoints by cost. Declaration order is priority order: a class yields to
+ * every class declared before it.
+ */
+public enum EndpointClass {
+
+    /** Single-device reads: {@code GET /devices/{id}} and {@code GET /devices/{id}/await}. */
+    POINT_READ,
+    /** Creates, updates, deletes and lease changes. */
+    WRITE,
+    /** Full or filtered listings, aggregate statistics and audit history scans. */
+    LISTING;
+
+    private static final Pattern SINGLE_DEVICE = Pattern.compile("^/devices/\\d+(/await)?$");
+
+    /**
+     * Returns the class of a request, or {@code null} for paths outside the device API.
+     */
+    public static EndpointClass of(String method, String path) {
+        if (!path.equals("/devices") && !path.startsWith("/devices/")) {
+            return null;
+        }
+        if (!"GET".equals(method)) {
+            return WRITE;
+        }
+        return SINGLE_DEVICE.matcher(path).matches() ? POINT_READ : LISTING;
+    }
+}
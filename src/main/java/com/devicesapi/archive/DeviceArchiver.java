@@ -0,0 +1,97 @@
+package com.devicesapi.archive;
+
+import com.devicesapi.repository.ArchivedDeviceRepository;
+import com.devicesapi.repository.DeviceRepository;
+import com.devicesapi.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Moves devices that have been INACTIVE for longer than {@code devices.archive.inactive-after}
+ * into {@code devices_archive}.
+ * <p>
+ * Each run moves at most one batch per shard in one short transaction, and the delay between
+ * runs is the throttle, so a large backlog drains steadily instead of competing with API
+ * traffic. Candidate rows are locked with {@code SKIP LOCKED}. Updates and deletes lock
+ * the device row before reading it, so a device being changed while the job runs is left
+ * for a later run, and a change that arrives after the job locked the row waits for it and
+ * then restores the device from the archive.
+ */
+@Component
+public class DeviceArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceArchiver.class);
+
+    private final DeviceRepository deviceRepository;
+    private final ArchivedDeviceRepository archivedDeviceRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionOperations transaction;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration inactiveAfter;
+    private final int batchSize;
+
+    @Autowired
+    public DeviceArchiver(DeviceRepository deviceRepository,
+                          ArchivedDeviceRepository archivedDeviceRepository,
+                          ShardRouter shardRouter,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${devices.archive.enabled:true}") boolean enabled,
+                          @Value("${devices.archive.inactive-after:90d}") Duration inactiveAfter,
+                          @Value("${devices.archive.batch-size:500}") int batchSize) {
+        this(deviceRepository, archivedDeviceRepository, shardRouter, new TransactionTemplate(transactionManager),
+                Clock.systemUTC(), enabled, inactiveAfter, batchSize);
+    }
+
+    DeviceArchiver(DeviceRepository deviceRepository, ArchivedDeviceRepository archivedDeviceRepository,
+                   ShardRouter shardRouter, TransactionOperations transaction, Clock clock,
+                   boolean enabled, Duration inactiveAfter, int batchSize) {
+        this.deviceRepository = deviceRepository;
+        this.archivedDeviceRepository = archivedDeviceRepository;
+        this.shardRouter = shardRouter;
+        this.transaction = transaction;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.inactiveAfter = inactiveAfter;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${devices.archive.batch-interval-millis:5000}",
+            initialDelayString = "${devices.archive.batch-interval-millis:5000}")
+    public void archiveBatch() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = clock.instant();
+        Instant cutoff = now.minus(inactiveAfter);
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            Integer archived = shardRouter.onShard(shard, () -> transaction.execute(status -> archive(cutoff, now)));
+            if (archived != null && archived > 0) {
+                log.info("Archived {} devices inactive since before {} on shard {}", archived, cutoff, shard);
+            }
+        }
+    }
+
+    private int archive(Instant cutoff, Instant now) {
+        List<Long> ids = deviceRepository.lockArchivable(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedDeviceRepository.copyFromDevices(ids, now);
+        deviceRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,6 @@
+package com.devicesapi.audit;
+
+public enum AuditOperation {
+    UPDATE,
+    DELETE
+}
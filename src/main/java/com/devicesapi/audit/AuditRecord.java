@@ -0,0 +1,76 @@
+package com.devicesapi.audit;
+
+import com.devicesapi.domain.DeviceState;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * One device state transition. On disk every record takes exactly {@link #SIZE} bytes:
+ * <pre>
+ *  0  int   crc32c of bytes 4..31
+ *  4  long  sequence
+ * 12  long  device id
+ * 20  long  timestamp (epoch millis)
+ * 28  byte  operation ordinal
+ * 29  byte  from-state ordinal (-1 if none)
+ * 30  byte  to-state ordinal (-1 if none)
+ * 31  byte  reserved
+ * </pre>
+ * The checksum is written last, so a zeroed or torn slot never reads back as a record.
+ */
+public record AuditRecord(long sequence, long deviceId, long timestampMillis,
+                          AuditOperation operation, DeviceState fromState, DeviceState toState) {
+
+    public static final int SIZE = 32;
+
+    private static final AuditOperation[] OPERATIONS = AuditOperation.values();
+    private static final DeviceState[] STATES = DeviceState.values();
+
+    void writeTo(ByteBuffer buffer, int offset) {
+        buffer.putLong(offset + 4, sequence);
+        buffer.putLong(offset + 12, deviceId);
+        buffer.putLong(offset + 20, timestampMillis);
+        buffer.put(offset + 28, (byte) operation.ordinal());
+        buffer.put(offset + 29, ordinal(fromState));
+        buffer.put(offset + 30, ordinal(toState));
+        buffer.put(offset + 31, (byte) 0);
+        buffer.putInt(offset, checksum(buffer, offset));
+    }
+
+    static AuditRecord readFrom(ByteBuffer buffer, int offset) {
+        long sequence = buffer.getLong(offset + 4);
+        if (sequence == 0 || buffer.getInt(offset) != checksum(buffer, offset)) {
+            return null;
+        }
+        return new AuditRecord(
+                sequence,
+                buffer.getLong(offset + 12),
+                buffer.getLong(offset + 20),
+                OPERATIONS[buffer.get(offset + 28)],
+                state(buffer.get(offset + 29)),
+                state(buffer.get(offset + 30)));
+    }
+
+    static long deviceIdAt(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + 12);
+    }
+
+    AuditRecord withSequence(long sequence) {
+        return new AuditRecord(sequence, deviceId, timestampMillis, operation, fromState, toState);
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + 4, SIZE - 4));
+        return (int) crc.getValue();
+    }
+
+    private static byte ordinal(DeviceState state) {
+        return state == null ? -1 : (byte) state.ordinal();
+    }
+
+    private static DeviceState state(byte ordinal) {
+        return ordinal < 0 ? null : STATES[ordinal];
+    }
+}
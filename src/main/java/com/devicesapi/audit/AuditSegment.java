@@ -0,0 +1,339 @@
+package com.devicesapi.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+/**
+ * A fixed-capacity, memory-mapped file of {@link AuditRecord}s. Records are appended by a
+ * single writer and published through the volatile {@code count}; readers may scan
+ * concurrently up to the count they observe.
+ * <p>
+ * History reads go through a per-segment index from device id to the slots holding its
+ * records, so they touch only that device's records. While a segment is being written the
+ * index is a chain in memory: the latest slot of every device plus, per slot, the previous
+ * slot of the same device. Sealing writes it out sorted by device id next to the data file
+ * ({@code .idx}), where it is memory-mapped and binary-searched; the in-memory chain is
+ * dropped. A segment opened without a usable index is rescanned and, if full, sealed again.
+ * <p>
+ * A Bloom filter of the device ids, sized from the capacity (about ten bits per record and
+ * seven probes, roughly 1% false positives), lets history queries skip segments that cannot
+ * hold the device without touching their index.
+ */
+class AuditSegment {
+
+    private static final String DATA_SUFFIX = ".audit";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final int FILTER_BITS_PER_RECORD = 10;
+    private static final int FILTER_HASHES = 7;
+    private static final int INDEX_ENTRY_SIZE = Long.BYTES + Integer.BYTES; // device id, slot
+
+    private final long baseSequence;
+    private final int capacity;
+    private final Path dataFile;
+    private final Path indexFile;
+    private final MappedByteBuffer buffer;
+    private final long[] filter;
+    private final int filterBits;
+
+    private volatile int count;
+    private volatile SlotIndex index;
+
+    private AuditSegment(Path directory, long baseSequence, int capacity) throws IOException {
+        this.baseSequence = baseSequence;
+        this.capacity = capacity;
+        String name = String.format("%020d", baseSequence);
+        this.dataFile = directory.resolve(name + DATA_SUFFIX);
+        this.indexFile = directory.resolve(name + INDEX_SUFFIX);
+        this.filter = new long[(int) (((long) capacity * FILTER_BITS_PER_RECORD + 63) / 64)];
+        this.filterBits = filter.length * 64;
+        this.index = new ChainIndex(capacity);
+        try (FileChannel channel = FileChannel.open(dataFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * AuditRecord.SIZE);
+        }
+    }
+
+    static AuditSegment create(Path directory, long baseSequence, int capacity) throws IOException {
+        return new AuditSegment(directory, baseSequence, capacity);
+    }
+
+    static AuditSegment open(Path dataFile, int capacity) throws IOException {
+        String name = dataFile.getFileName().toString();
+        long baseSequence = Long.parseLong(name.substring(0, name.length() - DATA_SUFFIX.length()));
+        int existingCapacity = (int) (Files.size(dataFile) / AuditRecord.SIZE);
+        AuditSegment segment = new AuditSegment(dataFile.getParent(), baseSequence, Math.max(capacity, existingCapacity));
+        segment.recover();
+        return segment;
+    }
+
+    static boolean isSegmentFile(Path path) {
+        return path.getFileName().toString().endsWith(DATA_SUFFIX);
+    }
+
+    long baseSequence() {
+        return baseSequence;
+    }
+
+    int count() {
+        return count;
+    }
+
+    boolean isFull() {
+        return count == capacity;
+    }
+
+    long nextSequence() {
+        return baseSequence + count;
+    }
+
+    void append(AuditRecord record) {
+        int slot = count;
+        record.withSequence(baseSequence + slot).writeTo(buffer, slot * AuditRecord.SIZE);
+        addToFilter(record.deviceId());
+        ((ChainIndex) index).add(record.deviceId(), slot);
+        count = slot + 1;
+    }
+
+    boolean mightContain(long deviceId) {
+        long hash = mix(deviceId);
+        for (int i = 0; i < FILTER_HASHES; i++) {
+            if (!bit(probe(hash, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds records for {@code deviceId} to {@code into}, newest first, until it holds {@code limit} entries.
+     */
+    void collectNewestFirst(long deviceId, int limit, List<AuditRecord> into) {
+        if (!mightContain(deviceId)) {
+            return;
+        }
+        int visible = count;
+        ByteBuffer view = buffer.duplicate();
+        index.visit(deviceId, slot -> {
+            // The writer may have indexed slots past the count read above; those are not published yet.
+            if (slot < visible) {
+                AuditRecord record = AuditRecord.readFrom(view, slot * AuditRecord.SIZE);
+                if (record != null) {
+                    into.add(record);
+                }
+            }
+            return into.size() < limit;
+        });
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Persists the index and filter of a segment that will not be appended to again.
+     */
+    void seal() throws IOException {
+        force();
+        if (index instanceof SortedIndex) {
+            return;
+        }
+        int sealedCount = count;
+        ByteBuffer file = ByteBuffer.allocate(indexFileSize(sealedCount));
+        file.putInt(sealedCount);
+        for (long word : filter) {
+            file.putLong(word);
+        }
+        ((ChainIndex) index).writeSorted(file);
+        Path temporary = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        Files.write(temporary, file.array());
+        Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        index = SortedIndex.map(indexFile, sealedCount, entriesOffset());
+    }
+
+    void delete() {
+        try {
+            Files.deleteIfExists(indexFile);
+            Files.deleteIfExists(dataFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void recover() throws IOException {
+        if (recoverFromIndexFile()) {
+            return;
+        }
+        ChainIndex chain = (ChainIndex) index;
+        int slot = 0;
+        while (slot < capacity) {
+            AuditRecord record = AuditRecord.readFrom(buffer, slot * AuditRecord.SIZE);
+            if (record == null || record.sequence() != baseSequence + slot) {
+                break;
+            }
+            addToFilter(record.deviceId());
+            chain.add(record.deviceId(), slot);
+            slot++;
+        }
+        count = slot;
+        if (isFull()) {
+            seal();
+        }
+    }
+
+    // An index file of another layout or filter size (e.g. another capacity) is ignored and rebuilt.
+    private boolean recoverFromIndexFile() throws IOException {
+        if (!Files.exists(indexFile) || Files.size(indexFile) < Integer.BYTES) {
+            return false;
+        }
+        int indexedCount;
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(header, 0);
+            indexedCount = header.getInt(0);
+            // Only full segments are sealed.
+            if (indexedCount != capacity || channel.size() != indexFileSize(indexedCount)) {
+                return false;
+            }
+            ByteBuffer words = ByteBuffer.allocate(filter.length * Long.BYTES);
+            channel.read(words, Integer.BYTES);
+            words.flip();
+            for (int i = 0; i < filter.length; i++) {
+                filter[i] = words.getLong();
+            }
+        }
+        index = SortedIndex.map(indexFile, indexedCount, entriesOffset());
+        count = indexedCount;
+        return true;
+    }
+
+    private int entriesOffset() {
+        return Integer.BYTES + filter.length * Long.BYTES;
+    }
+
+    private int indexFileSize(int records) {
+        return entriesOffset() + records * INDEX_ENTRY_SIZE;
+    }
+
+    private void addToFilter(long deviceId) {
+        long hash = mix(deviceId);
+        for (int i = 0; i < FILTER_HASHES; i++) {
+            int index = probe(hash, i);
+            filter[index >>> 6] |= 1L << index;
+        }
+    }
+
+    private boolean bit(int index) {
+        return (filter[index >>> 6] & (1L << index)) != 0;
+    }
+
+    // Double hashing: the i-th probe is h1 + i * h2, taken from the two halves of one 64-bit hash.
+    private int probe(long hash, int i) {
+        int combined = (int) hash + i * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % filterBits;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    private interface SlotIndex {
+
+        /** Hands the slots holding {@code deviceId} to {@code visitor}, newest first, until it returns false. */
+        void visit(long deviceId, IntPredicate visitor);
+    }
+
+    /**
+     * Index of the segment being written. Updated by the single writer; a slot's link is
+     * stored before the slot is published as its device's latest, so readers always follow
+     * complete chains.
+     */
+    private static final class ChainIndex implements SlotIndex {
+
+        private final Map<Long, Integer> latest = new ConcurrentHashMap<>();
+        private final int[] previous;
+
+        ChainIndex(int capacity) {
+            this.previous = new int[capacity];
+        }
+
+        void add(long deviceId, int slot) {
+            Integer last = latest.get(deviceId);
+            previous[slot] = last == null ? -1 : last;
+            latest.put(deviceId, slot);
+        }
+
+        @Override
+        public void visit(long deviceId, IntPredicate visitor) {
+            Integer head = latest.get(deviceId);
+            for (int slot = head == null ? -1 : head; slot >= 0 && visitor.test(slot); slot = previous[slot]) {
+                // visitor does the work
+            }
+        }
+
+        /** Writes (device id, slot) pairs ordered by device id, newest slot first within a device. */
+        void writeSorted(ByteBuffer into) {
+            long[] deviceIds = latest.keySet().stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(deviceIds);
+            for (long deviceId : deviceIds) {
+                for (int slot = latest.get(deviceId); slot >= 0; slot = previous[slot]) {
+                    into.putLong(deviceId).putInt(slot);
+                }
+            }
+        }
+    }
+
+    /** Index of a sealed segment: the memory-mapped pairs written by {@link ChainIndex#writeSorted}. */
+    private static final class SortedIndex implements SlotIndex {
+
+        private final ByteBuffer entries;
+        private final int size;
+
+        private SortedIndex(ByteBuffer entries, int size) {
+            this.entries = entries;
+            this.size = size;
+        }
+
+        static SortedIndex map(Path file, int size, int offset) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return new SortedIndex(channel.map(FileChannel.MapMode.READ_ONLY, offset, (long) size * INDEX_ENTRY_SIZE), size);
+            }
+        }
+
+        @Override
+        public void visit(long deviceId, IntPredicate visitor) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (deviceIdAt(mid) < deviceId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            for (int i = low; i < size && deviceIdAt(i) == deviceId; i++) {
+                if (!visitor.test(entries.getInt(i * INDEX_ENTRY_SIZE + Long.BYTES))) {
+                    return;
+                }
+            }
+        }
+
+        private long deviceIdAt(int i) {
+            return entries.getLong(i * INDEX_ENTRY_SIZE);
+        }
+    }
+}
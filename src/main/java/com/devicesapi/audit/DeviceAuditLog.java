@@ -0,0 +1,186 @@
+package com.devicesapi.audit;
+
+import com.devicesapi.domain.DeviceState;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Append-only audit trail of device state transitions.
+ * <p>
+ * Callers only enqueue into a lock-free ring buffer; a single writer thread drains it into
+ * memory-mapped segment files, so recording a transition never touches the database or
+ * blocks a request thread. When the buffer is full the record is dropped and counted
+ * rather than applying back-pressure to the API.
+ */
+@Component
+public class DeviceAuditLog {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceAuditLog.class);
+    private static final long IDLE_PARK_NANOS = Duration.ofMillis(1).toNanos();
+    private static final long FORCE_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final int maxSegments;
+    private final AuditRingBuffer ringBuffer;
+    private final List<AuditSegment> segments = new CopyOnWriteArrayList<>();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+
+    private volatile long written;
+    private volatile boolean running = true;
+
+    public DeviceAuditLog(@Value("${devices.audit.directory:audit}") Path directory,
+                          @Value("${devices.audit.segment-records:262144}") int segmentRecords,
+                          @Value("${devices.audit.max-segments:64}") int maxSegments,
+                          @Value("${devices.audit.ring-capacity:65536}") int ringCapacity) throws IOException {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.maxSegments = maxSegments;
+        this.ringBuffer = new AuditRingBuffer(ringCapacity);
+
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(AuditSegment::isSegmentFile).sorted().toList()) {
+                segments.add(AuditSegment.open(file, segmentRecords));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.add(AuditSegment.create(directory, 1, segmentRecords));
+        }
+        log.info("Audit log opened at {} with {} segments", directory, segments.size());
+
+        this.writer = new Thread(this::drain, "device-audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Records a transition once the surrounding transaction commits, or immediately when
+     * there is none.
+     */
+    public void record(Long deviceId, AuditOperation operation, DeviceState fromState, DeviceState toState) {
+        AuditRecord record = new AuditRecord(0, deviceId, System.currentTimeMillis(), operation, fromState, toState);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(record);
+                }
+            });
+        } else {
+            enqueue(record);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} transitions of a device, newest first.
+     */
+    public List<AuditRecord> history(Long deviceId, int limit) {
+        List<AuditRecord> records = new ArrayList<>();
+        List<AuditSegment> snapshot = List.copyOf(segments);
+        for (int i = snapshot.size() - 1; i >= 0 && records.size() < limit; i--) {
+            snapshot.get(i).collectNewestFirst(deviceId, limit, records);
+        }
+        return records;
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    boolean awaitWritten(Duration timeout) {
+        long target = enqueued.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (written < target) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join();
+        segments.get(segments.size() - 1).force();
+    }
+
+    private void enqueue(AuditRecord record) {
+        if (ringBuffer.offer(record)) {
+            enqueued.incrementAndGet();
+        } else if (dropped.incrementAndGet() % 10_000 == 1) {
+            log.warn("Audit ring buffer full, {} records dropped so far", dropped.get());
+        }
+    }
+
+    private void drain() {
+        long lastForce = System.nanoTime();
+        boolean dirty = false;
+        while (true) {
+            AuditRecord record = ringBuffer.poll();
+            if (record != null) {
+                append(record);
+                dirty = true;
+                continue;
+            }
+            if (!running) {
+                return;
+            }
+            if (dirty && System.nanoTime() - lastForce > FORCE_INTERVAL_NANOS) {
+                segments.get(segments.size() - 1).force();
+                lastForce = System.nanoTime();
+                dirty = false;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    private void append(AuditRecord record) {
+        try {
+            AuditSegment active = segments.get(segments.size() - 1);
+            if (active.isFull()) {
+                active = roll(active);
+            }
+            active.append(record);
+        } catch (IOException e) {
+            log.error("Failed to write audit record for device {}", record.deviceId(), e);
+        }
+        written++;
+    }
+
+    private AuditSegment roll(AuditSegment active) throws IOException {
+        active.seal();
+        AuditSegment next = AuditSegment.create(directory, active.nextSequence(), segmentRecords);
+        segments.add(next);
+        while (segments.size() > maxSegments) {
+            AuditSegment expired = segments.remove(0);
+            try {
+                expired.delete();
+            } catch (UncheckedIOException e) {
+                log.warn("Failed to delete audit segment {}", expired.baseSequence(), e);
+            }
+        }
+        return next;
+    }
+}
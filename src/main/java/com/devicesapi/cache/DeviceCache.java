@@ -0,0 +1,107 @@
+package com.devicesapi.cache;
+
+import com.devicesapi.dto.response.DeviceResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * In-process cache of device lookups by id, and of each device's encoded JSON.
+ * <p>
+ * Every invalidation bumps the generation counter of the id's stripe. Readers take that
+ * generation before loading from the database and only store the result if it is
+ * unchanged, so a load that raced with a write can never put the pre-write value back,
+ * while writes to other devices (bar the rare stripe collision) leave the load alone. Once
+ * {@code maxEntries} is reached new entries are simply not cached.
+ * <p>
+ * A JSON fragment is only reused for a response whose fields equal the ones it was encoded
+ * from, so a fragment can be missing after a write but never stale.
+ */
+@Component
+public class DeviceCache {
+
+    private final Map<Long, DeviceResponse> entries = new ConcurrentHashMap<>();
+    private final Map<Long, JsonFragment> fragments = new ConcurrentHashMap<>();
+    private static final int GENERATION_STRIPES = 4096;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final int maxEntries;
+
+    public DeviceCache(@Value("${devices.cache.max-entries:100000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public DeviceResponse get(Long id) {
+        return entries.get(id);
+    }
+
+    public long generation(Long id) {
+        return generations.get(stripe(id));
+    }
+
+    public void put(Long id, DeviceResponse response, long loadedAtGeneration) {
+        if (entries.size() >= maxEntries) {
+            return;
+        }
+        entries.put(id, response);
+        if (generations.get(stripe(id)) != loadedAtGeneration) {
+            // An invalidation slipped in while the value was loading; it may be stale.
+            entries.remove(id, response);
+        }
+    }
+
+    public byte[] json(DeviceResponse response, Function<DeviceResponse, byte[]> encoder) {
+        Long id = response.getId();
+        if (id == null) {
+            return encoder.apply(response);
+        }
+        JsonFragment fragment = fragments.get(id);
+        if (fragment != null && fragment.encodes(response)) {
+            return fragment.json();
+        }
+        byte[] json = encoder.apply(response);
+        if (fragments.size() < maxEntries) {
+            fragments.put(id, new JsonFragment(response, json));
+        }
+        return json;
+    }
+
+    public void invalidate(Long id) {
+        generations.incrementAndGet(stripe(id));
+        entries.remove(id);
+        fragments.remove(id);
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        entries.clear();
+        fragments.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id * 0x9e3779b97f4a7c15L) & (GENERATION_STRIPES - 1);
+    }
+
+    private record JsonFragment(DeviceResponse source, byte[] json) {
+
+        boolean encodes(DeviceResponse response) {
+            return source == response
+                    || (Objects.equals(source.getId(), response.getId())
+                    && Objects.equals(source.getName(), response.getName())
+                    && Objects.equals(source.getBrand(), response.getBrand())
+                    && Objects.equals(source.getState(), response.getState())
+                    && Objects.equals(source.getCreatedAt(), response.getCreatedAt()));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.devicesapi.cache;
+
+import com.devicesapi.waiters.DeviceWaiterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Entry point for writers: once the surrounding transaction commits (or immediately when
+ * there is none) the device is evicted locally and announced on the cluster bus, if any,
+ * and requests waiting on it are woken up.
+ */
+@Component
+public class DeviceChangeNotifier {
+
+    private final DeviceCache deviceCache;
+    private final ObjectProvider<DeviceInvalidationBus> invalidationBus;
+    private final ObjectProvider<DeviceWaiterRegistry> waiterRegistry;
+
+    public DeviceChangeNotifier(DeviceCache deviceCache, ObjectProvider<DeviceInvalidationBus> invalidationBus,
+                                ObjectProvider<DeviceWaiterRegistry> waiterRegistry) {
+        this.deviceCache = deviceCache;
+        this.invalidationBus = invalidationBus;
+        this.waiterRegistry = waiterRegistry;
+    }
+
+    public void deviceChanged(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(id);
+                }
+            });
+        } else {
+            invalidate(id);
+        }
+    }
+
+    private void invalidate(Long id) {
+        deviceCache.invalidate(id);
+        invalidationBus.ifAvailable(bus -> bus.publish(id));
+        waiterRegistry.ifAvailable(registry -> registry.signal(id));
+    }
+}
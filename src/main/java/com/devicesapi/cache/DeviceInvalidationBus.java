@@ -0,0 +1,8 @@
+package com.devicesapi.cache;
+
+/**
+ * Carries device invalidations to the other application nodes.
+ */
+public interface DeviceInvalidationBus {
+    void publish(Long deviceId);
+}
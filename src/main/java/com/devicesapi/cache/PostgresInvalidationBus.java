@@ -0,0 +1,180 @@
+package com.devicesapi.cache;
+
+import com.devicesapi.waiters.DeviceWaiterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cross-node cache invalidation over PostgreSQL {@code LISTEN/NOTIFY}.
+ * <p>
+ * Changed ids are coalesced and flushed as a few comma-separated notifications per tick,
+ * so a write burst costs a handful of NOTIFYs rather than one per row. A dedicated
+ * connection listens for the other nodes' notifications; whenever that connection is lost
+ * the local cache is flushed, because anything announced in the meantime was missed.
+ * Requests parked on this node in {@link DeviceWaiterRegistry} are re-checked likewise.
+ */
+@Component
+@ConditionalOnProperty(name = "devices.cache.cluster-invalidation.enabled", havingValue = "true")
+public class PostgresInvalidationBus implements DeviceInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresInvalidationBus.class);
+    private static final String CHANNEL = "device_invalidation";
+    private static final int MAX_PAYLOAD_BYTES = 7900; // PostgreSQL rejects payloads of 8000 bytes or more
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final long RECONNECT_BACKOFF_MILLIS = 1000;
+
+    private final DataSource dataSource;
+    private final DeviceCache deviceCache;
+    private final ObjectProvider<DeviceWaiterRegistry> waiterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final Thread listener;
+
+    private volatile boolean running = true;
+
+    public PostgresInvalidationBus(DataSource dataSource, DeviceCache deviceCache,
+                                   ObjectProvider<DeviceWaiterRegistry> waiterRegistry) {
+        this.dataSource = dataSource;
+        this.deviceCache = deviceCache;
+        this.waiterRegistry = waiterRegistry;
+        this.listener = new Thread(this::listen, "device-invalidation-listener");
+        this.listener.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        flush();
+        listener.join(POLL_TIMEOUT_MILLIS * 2L);
+    }
+
+    @Override
+    public void publish(Long deviceId) {
+        pending.add(deviceId);
+    }
+
+    @Scheduled(fixedDelayString = "${devices.cache.cluster-invalidation.flush-millis:20}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        StringBuilder payload = new StringBuilder(nodeId).append('|');
+        int header = payload.length();
+        // Ids leave `pending` before they are sent, so a publish racing with the send is kept
+        // for the next flush; the ones taken but not yet sent go back if the send fails.
+        List<Long> unsent = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement notify = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            Iterator<Long> ids = pending.iterator();
+            while (ids.hasNext()) {
+                Long id = ids.next();
+                ids.remove();
+                String text = id.toString();
+                if (payload.length() + text.length() + 1 > MAX_PAYLOAD_BYTES) {
+                    send(notify, payload);
+                    payload.setLength(header);
+                    unsent.clear();
+                }
+                if (payload.length() > header) {
+                    payload.append(',');
+                }
+                payload.append(text);
+                unsent.add(id);
+            }
+            if (payload.length() > header) {
+                send(notify, payload);
+                unsent.clear();
+            }
+        } catch (SQLException e) {
+            // Invalidations are idempotent, so retrying them on the next tick is always safe.
+            pending.addAll(unsent);
+            log.warn("Failed to publish device invalidations, retrying on the next flush", e);
+        }
+    }
+
+    private void send(PreparedStatement notify, CharSequence payload) throws SQLException {
+        notify.setString(1, CHANNEL);
+        notify.setString(2, payload.toString());
+        notify.execute();
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                invalidateAll();
+                log.info("Listening for device invalidations on channel {}", CHANNEL);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                invalidateAll();
+                if (running) {
+                    log.warn("Device invalidation listener disconnected, retrying", e);
+                    sleepQuietly(RECONNECT_BACKOFF_MILLIS);
+                }
+            }
+        }
+    }
+
+    private void apply(String payload) {
+        int separator = payload.indexOf('|');
+        if (separator < 0 || payload.startsWith(nodeId + "|")) {
+            return;
+        }
+        for (String id : payload.substring(separator + 1).split(",")) {
+            Long deviceId = Long.valueOf(id);
+            deviceCache.invalidate(deviceId);
+            waiterRegistry.ifAvailable(registry -> registry.signal(deviceId));
+        }
+    }
+
+    private void invalidateAll() {
+        deviceCache.invalidateAll();
+        waiterRegistry.ifAvailable(DeviceWaiterRegistry::signalAll);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
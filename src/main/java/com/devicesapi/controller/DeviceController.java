@@ -1,9 +1,14 @@
 package com.devicesapi.controller;
 
+import com.devicesapi.domain.DeviceState;
 import com.devicesapi.dto.request.CreateDeviceRequest;
 import com.devicesapi.dto.request.UpdateDeviceRequest;
+import com.devicesapi.dto.response.DeviceCreationBucketResponse;
+import com.devicesapi.dto.response.DeviceLeaseResponse;
 import com.devicesapi.dto.response.DeviceResponse;
+import com.devicesapi.service.DeviceLeaseService;
 import com.devicesapi.service.DeviceService;
+import com.devicesapi.waiters.DeviceWaiterRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -13,8 +18,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @RestController
@@ -26,9 +37,14 @@ import java.util.List;
 public class DeviceController {
 
     private final DeviceService deviceService;
+    private final DeviceLeaseService deviceLeaseService;
+    private final DeviceWaiterRegistry deviceWaiterRegistry;
 
-    public DeviceController(DeviceService deviceService) {
+    public DeviceController(DeviceService deviceService, DeviceLeaseService deviceLeaseService,
+                            DeviceWaiterRegistry deviceWaiterRegistry) {
         this.deviceService = deviceService;
+        this.deviceLeaseService = deviceLeaseService;
+        this.deviceWaiterRegistry = deviceWaiterRegistry;
     }
 
     // ---------------- CREATE ----------------
@@ -81,11 +97,73 @@ public class DeviceController {
         return deviceService.getDeviceById(id);
     }
 
+    // ---------------- AWAIT STATE ----------------
+
+    @Operation(
+            summary = "Wait for a device to reach a state",
+            description = "Long poll: answers as soon as the device is in the requested state, right away if it " +
+                    "already is. Answers 204 if the timeout passes first (capped by devices.await.max-timeout) " +
+                    "and 503 with Retry-After when too many requests are already waiting or the device could " +
+                    "not be re-checked."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Device is in the requested state",
+                    content = @Content(schema = @Schema(implementation = DeviceResponse.class))),
+            @ApiResponse(responseCode = "204", description = "Timed out before the device reached the state",
+                    content = @Content),
+            @ApiResponse(responseCode = "400", description = "Unknown state, or a timeout that is invalid or not positive",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "Device not found or deleted while waiting",
+                    content = @Content),
+            @ApiResponse(responseCode = "503", description = "Too many waiting requests, or retry after a failed re-check",
+                    content = @Content)
+    })
+    @GetMapping("/{id}/await")
+    public DeferredResult<ResponseEntity<DeviceResponse>> await(
+            @Parameter(
+                    name = "id",
+                    description = "Unique device identifier",
+                    required = true,
+                    in = ParameterIn.PATH
+            )
+            @PathVariable Long id,
+
+            @Parameter(
+                    name = "state",
+                    description = "State to wait for (AVAILABLE, IN_USE, INACTIVE)",
+                    example = "AVAILABLE",
+                    required = true,
+                    in = ParameterIn.QUERY
+            )
+            @RequestParam String state,
+
+            @Parameter(
+                    name = "timeout",
+                    description = "How long to wait, e.g. 30, 30s or PT1M (plain numbers are seconds)",
+                    example = "30s",
+                    in = ParameterIn.QUERY
+            )
+            @RequestParam(defaultValue = "30s") String timeout
+    ) {
+        DeviceState target;
+        Duration wait;
+        try {
+            target = DeviceState.valueOf(state.toUpperCase());
+            wait = DurationStyle.detectAndParse(timeout, ChronoUnit.SECONDS);
+        } catch (IllegalArgumentException e) {
+            DeferredResult<ResponseEntity<DeviceResponse>> badRequest = new DeferredResult<>();
+            badRequest.setResult(ResponseEntity.badRequest().build());
+            return badRequest;
+        }
+        return deviceWaiterRegistry.await(id, target, wait);
+    }
+
     // ---------------- READ (FILTERED / ALL) ----------------
 
     @Operation(
             summary = "Fetch devices",
-            description = "Fetches all devices or filters them by brand or state"
+            description = "Fetches all devices or filters them by brand, state or creation time. " +
+                    "Filters are not combined: brand takes precedence, then state, then the creation range."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Devices retrieved successfully")
@@ -106,7 +184,23 @@ public class DeviceController {
                     example = "AVAILABLE",
                     in = ParameterIn.QUERY
             )
-            @RequestParam(required = false) String state
+            @RequestParam(required = false) String state,
+
+            @Parameter(
+                    name = "createdAfter",
+                    description = "Only devices created at or after this instant (ISO-8601)",
+                    example = "2024-01-01T00:00:00Z",
+                    in = ParameterIn.QUERY
+            )
+            @RequestParam(required = false) Instant createdAfter,
+
+            @Parameter(
+                    name = "createdBefore",
+                    description = "Only devices created before this instant (ISO-8601)",
+                    example = "2024-02-01T00:00:00Z",
+                    in = ParameterIn.QUERY
+            )
+            @RequestParam(required = false) Instant createdBefore
     ) {
         if (brand != null) {
             return deviceService.getDevicesByBrand(brand);
@@ -114,9 +208,51 @@ public class DeviceController {
         if (state != null) {
             return deviceService.getDevicesByState(state);
         }
+        if (createdAfter != null || createdBefore != null) {
+            return deviceService.getDevicesCreatedBetween(createdAfter, createdBefore);
+        }
         return deviceService.getAllDevices();
     }
 
+    // ---------------- STATS ----------------
+
+    @Operation(
+            summary = "Count devices created per time bucket",
+            description = "Returns the number of devices created in each UTC hour or day, oldest first. " +
+                    "Empty buckets are omitted."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Histogram computed successfully")
+    })
+    @GetMapping("/stats/created")
+    public List<DeviceCreationBucketResponse> createdHistogram(
+            @Parameter(
+                    name = "bucket",
+                    description = "Bucket width (hour or day)",
+                    example = "day",
+                    in = ParameterIn.QUERY
+            )
+            @RequestParam(defaultValue = "day") String bucket,
+
+            @Parameter(
+                    name = "createdAfter",
+                    description = "Only count devices created at or after this instant (ISO-8601)",
+                    example = "2024-01-01T00:00:00Z",
+                    in = ParameterIn.QUERY
+            )
+            @RequestParam(required = false) Instant createdAfter,
+
+            @Parameter(
+                    name = "createdBefore",
+                    description = "Only count devices created before this instant (ISO-8601)",
+                    example = "2024-02-01T00:00:00Z",
+                    in = ParameterIn.QUERY
+            )
+            @RequestParam(required = false) Instant createdBefore
+    ) {
+        return deviceService.getCreationHistogram(bucket, createdAfter, createdBefore);
+    }
+
     // ---------------- UPDATE ----------------
 
     @Operation(
@@ -177,4 +313,64 @@ public class DeviceController {
     ) {
         deviceService.deleteDevice(id);
     }
+
+    // ---------------- LEASE ----------------
+
+    @Operation(
+            summary = "Lease a device",
+            description = "Atomically moves an AVAILABLE device to IN_USE until the lease expires or is released."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Device leased",
+                    content = @Content(schema = @Schema(implementation = DeviceLeaseResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Device is not available or ttl is invalid",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "Device not found",
+                    content = @Content)
+    })
+    @PostMapping("/{id}/lease")
+    public DeviceLeaseResponse lease(
+            @Parameter(
+                    name = "id",
+                    description = "Unique device identifier",
+                    required = true,
+                    in = ParameterIn.PATH
+            )
+            @PathVariable Long id,
+
+            @Parameter(
+                    name = "ttl",
+                    description = "Lease duration, e.g. 300, 30s, 15m or PT1H (plain numbers are seconds)",
+                    example = "5m",
+                    in = ParameterIn.QUERY
+            )
+            @RequestParam(defaultValue = "300") String ttl
+    ) {
+        return deviceLeaseService.leaseDevice(id, DurationStyle.detectAndParse(ttl, ChronoUnit.SECONDS));
+    }
+
+    @Operation(
+            summary = "Release a device lease",
+            description = "Ends an active lease and returns the device to AVAILABLE."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Lease released"),
+            @ApiResponse(responseCode = "400", description = "Device has no active lease",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "Device not found",
+                    content = @Content)
+    })
+    @DeleteMapping("/{id}/lease")
+    @ResponseStatus(org.springframework.http.HttpStatus.NO_CONTENT)
+    public void releaseLease(
+            @Parameter(
+                    name = "id",
+                    description = "Unique device identifier",
+                    required = true,
+                    in = ParameterIn.PATH
+            )
+            @PathVariable Long id
+    ) {
+        deviceLeaseService.releaseLease(id);
+    }
 }
@@ -0,0 +1,72 @@
+package com.devicesapi.controller;
+
+import com.devicesapi.audit.AuditRecord;
+import com.devicesapi.audit.DeviceAuditLog;
+import com.devicesapi.dto.response.DeviceHistoryResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/devices")
+@Tag(
+        name = "Device history",
+        description = "Audit trail of device state transitions"
+)
+public class DeviceHistoryController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final DeviceAuditLog deviceAuditLog;
+
+    public DeviceHistoryController(DeviceAuditLog deviceAuditLog) {
+        this.deviceAuditLog = deviceAuditLog;
+    }
+
+    @Operation(
+            summary = "Fetch device history",
+            description = "Returns the recorded updates and deletion of a device, newest first"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "History retrieved successfully")
+    })
+    @GetMapping("/{id}/history")
+    public List<DeviceHistoryResponse> history(
+            @Parameter(
+                    name = "id",
+                    description = "Unique device identifier",
+                    required = true,
+                    in = ParameterIn.PATH
+            )
+            @PathVariable Long id,
+
+            @Parameter(
+                    name = "limit",
+                    description = "Maximum number of entries to return (at most 1000)",
+                    example = "100",
+                    in = ParameterIn.QUERY
+            )
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return deviceAuditLog.history(id, Math.max(1, Math.min(limit, MAX_LIMIT))).stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    private DeviceHistoryResponse toResponse(AuditRecord record) {
+        return DeviceHistoryResponse.builder()
+                .sequence(record.sequence())
+                .operation(record.operation().name())
+                .fromState(record.fromState() == null ? null : record.fromState().name())
+                .toState(record.toState() == null ? null : record.toState().name())
+                .timestamp(Instant.ofEpochMilli(record.timestampMillis()))
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.devicesapi.domain;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A device that stayed INACTIVE long enough to be moved out of the {@code devices} table.
+ * Rows are written and removed with bulk statements only; the entity is read-only.
+ */
+@Entity
+@Table(name = "devices_archive", indexes = {
+        @Index(name = "idx_devices_archive_created_at", columnList = "createdAt")
+})
+public class ArchivedDevice {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String brand;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DeviceState state;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant inactiveSince;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    protected ArchivedDevice() {
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getBrand() { return brand; }
+    public DeviceState getState() { return state; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getInactiveSince() { return inactiveSince; }
+    public Instant getArchivedAt() { return archivedAt; }
+}
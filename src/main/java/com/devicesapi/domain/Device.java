@@ -1,14 +1,26 @@
 package com.devicesapi.domain;
 
+import com.devicesapi.sharding.ShardAwareIdGenerator;
 import jakarta.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import java.time.Instant;
 
 @Entity
-@Table(name = "devices")
+@Table(name = "devices", indexes = {
+        @Index(name = "idx_devices_brand", columnList = "brand"),
+        @Index(name = "idx_devices_state", columnList = "state"),
+        @Index(name = "idx_devices_lease_expires_at", columnList = "leaseExpiresAt")
+})
 public class Device {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "device_id")
+    @GenericGenerator(name = "device_id", type = ShardAwareIdGenerator.class, parameters = {
+            @Parameter(name = "sequence_name", value = "devices_id_seq"),
+            @Parameter(name = "increment_size", value = "1")
+    })
     private Long id;
 
     @Column(nullable = false)
@@ -24,11 +36,18 @@ public class Device {
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
+    private Instant leaseExpiresAt; // set only while the device is leased
+
+    private Instant inactiveSince; // set only while the device is INACTIVE
+
+    protected Device() {
+    }
+
     public Device(String name, String brand, DeviceState state) {
         this.name = name;
         this.brand = brand;
-        this.state = state;
         this.createdAt = Instant.now();
+        setState(state);
     }
 
     // Getters and Setters
@@ -42,8 +61,18 @@ public class Device {
     public void setBrand(String brand) { this.brand = brand; }
 
     public DeviceState getState() { return state; }
-    public void setState(DeviceState state) { this.state = state; }
+    public void setState(DeviceState state) {
+        if (state != this.state) {
+            this.inactiveSince = state == DeviceState.INACTIVE ? Instant.now() : null;
+        }
+        this.state = state;
+    }
 
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public Instant getLeaseExpiresAt() { return leaseExpiresAt; }
+    public void setLeaseExpiresAt(Instant leaseExpiresAt) { this.leaseExpiresAt = leaseExpiresAt; }
+
+    public Instant getInactiveSince() { return inactiveSince; }
 }
@@ -0,0 +1,31 @@
+package com.devicesapi.dto.response;
+
+import java.time.Instant;
+
+public class DeviceCreationBucketResponse {
+
+    private final Instant bucketStart;
+    private final long count;
+
+    private DeviceCreationBucketResponse(Builder builder) {
+        this.bucketStart = builder.bucketStart;
+        this.count = builder.count;
+    }
+
+    public Instant getBucketStart() { return bucketStart; }
+    public long getCount() { return count; }
+
+    public static Builder builder() { return new Builder(); }
+
+    public static class Builder {
+        private Instant bucketStart;
+        private long count;
+
+        public Builder bucketStart(Instant bucketStart) { this.bucketStart = bucketStart; return this; }
+        public Builder count(long count) { this.count = count; return this; }
+
+        public DeviceCreationBucketResponse build() {
+            return new DeviceCreationBucketResponse(this);
+        }
+    }
+}
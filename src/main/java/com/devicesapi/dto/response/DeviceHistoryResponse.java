@@ -0,0 +1,46 @@
+package com.devicesapi.dto.response;
+
+import java.time.Instant;
+
+public class DeviceHistoryResponse {
+
+    private final Long sequence;
+    private final String operation;
+    private final String fromState;
+    private final String toState;
+    private final Instant timestamp;
+
+    private DeviceHistoryResponse(Builder builder) {
+        this.sequence = builder.sequence;
+        this.operation = builder.operation;
+        this.fromState = builder.fromState;
+        this.toState = builder.toState;
+        this.timestamp = builder.timestamp;
+    }
+
+    public Long getSequence() { return sequence; }
+    public String getOperation() { return operation; }
+    public String getFromState() { return fromState; }
+    public String getToState() { return toState; }
+    public Instant getTimestamp() { return timestamp; }
+
+    public static Builder builder() { return new Builder(); }
+
+    public static class Builder {
+        private Long sequence;
+        private String operation;
+        private String fromState;
+        private String toState;
+        private Instant timestamp;
+
+        public Builder sequence(Long sequence) { this.sequence = sequence; return this; }
+        public Builder operation(String operation) { this.operation = operation; return this; }
+        public Builder fromState(String fromState) { this.fromState = fromState; return this; }
+        public Builder toState(String toState) { this.toState = toState; return this; }
+        public Builder timestamp(Instant timestamp) { this.timestamp = timestamp; return this; }
+
+        public DeviceHistoryResponse build() {
+            return new DeviceHistoryResponse(this);
+        }
+    }
+}
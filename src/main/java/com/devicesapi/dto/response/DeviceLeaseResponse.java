@@ -0,0 +1,31 @@
+package com.devicesapi.dto.response;
+
+import java.time.Instant;
+
+public class DeviceLeaseResponse {
+
+    private final Long deviceId;
+    private final Instant expiresAt;
+
+    private DeviceLeaseResponse(Builder builder) {
+        this.deviceId = builder.deviceId;
+        this.expiresAt = builder.expiresAt;
+    }
+
+    public Long getDeviceId() { return deviceId; }
+    public Instant getExpiresAt() { return expiresAt; }
+
+    public static Builder builder() { return new Builder(); }
+
+    public static class Builder {
+        private Long deviceId;
+        private Instant expiresAt;
+
+        public Builder deviceId(Long deviceId) { this.deviceId = deviceId; return this; }
+        public Builder expiresAt(Instant expiresAt) { this.expiresAt = expiresAt; return this; }
+
+        public DeviceLeaseResponse build() {
+            return new DeviceLeaseResponse(this);
+        }
+    }
+}
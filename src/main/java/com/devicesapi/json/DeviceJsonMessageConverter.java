@@ -0,0 +1,113 @@
+package com.devicesapi.json;
+
+import com.devicesapi.cache.DeviceCache;
+import com.devicesapi.dto.response.DeviceResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes {@link DeviceResponse} and {@code List<DeviceResponse>} bodies from the per-device
+ * JSON fragments kept in {@link DeviceCache}, copying the bytes straight into the response
+ * stream. Only fragments encoded on a miss go through Jackson. Any other type falls
+ * through to the regular Jackson converter.
+ */
+@Component
+public class DeviceJsonMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final byte[] EMPTY_ARRAY = {'[', ']'};
+
+    private final DeviceCache deviceCache;
+    private final ObjectWriter writer;
+
+    public DeviceJsonMessageConverter(DeviceCache deviceCache, ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.deviceCache = deviceCache;
+        this.writer = objectMapper.writerFor(DeviceResponse.class);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return DeviceResponse.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (clazz == DeviceResponse.class) {
+            return true;
+        }
+        return List.class.isAssignableFrom(clazz)
+                && type instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments()[0] == DeviceResponse.class;
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream out = outputMessage.getBody();
+        if (body instanceof DeviceResponse device) {
+            out.write(json(device));
+            return;
+        }
+        List<?> devices = (List<?>) body;
+        if (devices.isEmpty()) {
+            out.write(EMPTY_ARRAY);
+            return;
+        }
+        out.write('[');
+        for (int i = 0; i < devices.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(json((DeviceResponse) devices.get(i)));
+        }
+        out.write(']');
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Device responses are write-only", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Device responses are write-only", inputMessage);
+    }
+
+    private byte[] json(DeviceResponse device) {
+        return deviceCache.json(device, this::encode);
+    }
+
+    private byte[] encode(DeviceResponse device) {
+        try {
+            return writer.writeValueAsBytes(device);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not write device " + device.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.devicesapi.json;
+
+import com.devicesapi.dto.response.DeviceResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link DeviceResponse} without bean introspection. Field order and null handling
+ * match what Jackson's default bean serializer produces for the class; {@code createdAt}
+ * is still delegated to the configured Instant serializer so date settings keep applying.
+ */
+@JsonComponent
+public class DeviceResponseSerializer extends JsonSerializer<DeviceResponse> {
+
+    @Override
+    public void serialize(DeviceResponse value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(value);
+        generator.writeFieldName("id");
+        if (value.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value.getId());
+        }
+        generator.writeStringField("name", value.getName());
+        generator.writeStringField("brand", value.getBrand());
+        generator.writeStringField("state", value.getState());
+        generator.writeFieldName("createdAt");
+        provider.defaultSerializeValue(value.getCreatedAt(), generator);
+        generator.writeEndObject();
+    }
+
+    @Override
+    public Class<DeviceResponse> handledType() {
+        return DeviceResponse.class;
+    }
+}
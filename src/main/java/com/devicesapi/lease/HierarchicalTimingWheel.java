@@ -0,0 +1,123 @@
+package com.devicesapi.lease;
+
+import java.util.ArrayDeque;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel keyed by device id. Scheduling is O(1); advancing the
+ * clock costs one bucket per elapsed tick plus the entries that actually expire.
+ * Entries beyond the range of a level are parked in a coarser overflow level and
+ * cascaded down when their bucket becomes current.
+ * <p>
+ * Not thread-safe: callers must serialize access.
+ */
+public class HierarchicalTimingWheel {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long intervalMillis;
+    private final ArrayDeque<Entry>[] buckets;
+    private final HierarchicalTimingWheel root;
+
+    private long currentTime;
+    private HierarchicalTimingWheel overflow;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this(tickMillis, wheelSize, startMillis, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis, HierarchicalTimingWheel root) {
+        if (tickMillis <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("tickMillis must be positive and wheelSize greater than 1");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.intervalMillis = tickMillis * wheelSize;
+        this.buckets = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.currentTime = startMillis - (startMillis % tickMillis);
+        this.root = root == null ? this : root;
+    }
+
+    /**
+     * Schedules {@code id} to fire at {@code expiresAtMillis}.
+     *
+     * @return false if the deadline has already passed and nothing was scheduled
+     */
+    public boolean schedule(long id, long expiresAtMillis) {
+        if (!add(new Entry(id, expiresAtMillis))) {
+            return false;
+        }
+        root.size++;
+        return true;
+    }
+
+    /**
+     * Moves the clock forward to {@code nowMillis}, handing every expired id to {@code expired}.
+     */
+    public void advance(long nowMillis, LongConsumer expired) {
+        while (nowMillis >= currentTime + tickMillis) {
+            ArrayDeque<Entry> bucket = buckets[index(currentTime)];
+            Entry entry;
+            while ((entry = bucket.poll()) != null) {
+                size--;
+                expired.accept(entry.id);
+            }
+            currentTime += tickMillis;
+            if (overflow != null && currentTime % overflow.tickMillis == 0) {
+                overflow.tick(expired);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private boolean add(Entry entry) {
+        long expiresAt = entry.expiresAtMillis;
+        if (expiresAt < currentTime) {
+            return false;
+        }
+        if (expiresAt < currentTime + intervalMillis) {
+            buckets[index(expiresAt)].add(entry);
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new HierarchicalTimingWheel(intervalMillis, wheelSize, currentTime, root);
+        }
+        return overflow.add(entry);
+    }
+
+    // Called on an overflow level each time the level below wraps onto one of its bucket boundaries.
+    private void tick(LongConsumer expired) {
+        currentTime += tickMillis;
+        // Cascade coarser levels first so their entries land before this level's bucket is drained.
+        if (overflow != null && currentTime % overflow.tickMillis == 0) {
+            overflow.tick(expired);
+        }
+        ArrayDeque<Entry> bucket = buckets[index(currentTime)];
+        Entry entry;
+        while ((entry = bucket.poll()) != null) {
+            if (!root.add(entry)) {
+                root.size--;
+                expired.accept(entry.id);
+            }
+        }
+    }
+
+    private int index(long timeMillis) {
+        return (int) ((timeMillis / tickMillis) % wheelSize);
+    }
+
+    private record Entry(long id, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.devicesapi.lease;
+
+import com.devicesapi.cache.DeviceChangeNotifier;
+import com.devicesapi.domain.Device;
+import com.devicesapi.domain.DeviceState;
+import com.devicesapi.repository.DeviceRepository;
+import com.devicesapi.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks lease deadlines in memory and hands expired devices back to AVAILABLE in batches.
+ * The database stays the source of truth: releases are conditional on the stored deadline,
+ * so a stale wheel entry can never release a lease that was renewed or revoked meanwhile.
+ * A batch whose release fails is rescheduled one tick later instead of being dropped.
+ */
+@Component
+public class LeaseExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaseExpiryScheduler.class);
+
+    private final DeviceRepository deviceRepository;
+    private final ShardRouter shardRouter;
+    private final DeviceChangeNotifier deviceChangeNotifier;
+    private final Clock clock;
+    private final long tickMillis;
+    private final int batchSize;
+    private final HierarchicalTimingWheel wheel;
+    private final Map<Long, Long> deadlines = new HashMap<>();
+
+    @Autowired
+    public LeaseExpiryScheduler(DeviceRepository deviceRepository,
+                                ShardRouter shardRouter,
+                                DeviceChangeNotifier deviceChangeNotifier,
+                                @Value("${devices.lease.tick-millis:1000}") long tickMillis,
+                                @Value("${devices.lease.wheel-size:512}") int wheelSize,
+                                @Value("${devices.lease.release-batch-size:500}") int batchSize) {
+        this(deviceRepository, shardRouter, deviceChangeNotifier, Clock.systemUTC(), tickMillis, wheelSize, batchSize);
+    }
+
+    LeaseExpiryScheduler(DeviceRepository deviceRepository, ShardRouter shardRouter,
+                         DeviceChangeNotifier deviceChangeNotifier, Clock clock,
+                         long tickMillis, int wheelSize, int batchSize) {
+        this.deviceRepository = deviceRepository;
+        this.shardRouter = shardRouter;
+        this.deviceChangeNotifier = deviceChangeNotifier;
+        this.clock = clock;
+        this.tickMillis = tickMillis;
+        this.batchSize = batchSize;
+        this.wheel = new HierarchicalTimingWheel(tickMillis, wheelSize, clock.millis());
+    }
+
+    public synchronized void schedule(Long deviceId, Instant expiresAt) {
+        long deadline = expiresAt.toEpochMilli();
+        deadlines.put(deviceId, deadline);
+        if (!wheel.schedule(deviceId, deadline)) {
+            // Already due; the next tick picks it up.
+            wheel.schedule(deviceId, clock.millis());
+        }
+    }
+
+    public synchronized void cancel(Long deviceId) {
+        // The wheel entry stays behind and is dropped when it fires without a matching deadline.
+        deadlines.remove(deviceId);
+    }
+
+    public synchronized int pending() {
+        return deadlines.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        List<Device> leased = shardRouter.scatterGather(
+                () -> deviceRepository.findByStateAndLeaseExpiresAtIsNotNull(DeviceState.IN_USE));
+        for (Device device : leased) {
+            schedule(device.getId(), device.getLeaseExpiresAt());
+        }
+        log.info("Recovered {} active device leases", leased.size());
+    }
+
+    @Scheduled(fixedDelayString = "${devices.lease.tick-millis:1000}")
+    public void releaseExpired() {
+        Instant now = clock.instant();
+        List<Long> expired = collectExpired(now.toEpochMilli());
+        shardRouter.groupByShard(expired).forEach((shard, ids) -> {
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                int released;
+                try {
+                    released = shardRouter.onShard(shard, () -> deviceRepository.releaseExpiredLeases(batch, now));
+                } catch (RuntimeException e) {
+                    log.warn("Failed to release {} expired device leases on shard {}, retrying next tick",
+                            batch.size(), shard, e);
+                    retry(batch);
+                    continue;
+                }
+                log.debug("Released {} of {} expired device leases on shard {}", released, batch.size(), shard);
+                if (released > 0) {
+                    batch.forEach(deviceChangeNotifier::deviceChanged);
+                }
+            }
+        });
+    }
+
+    // A lease renewed since it was collected keeps its newer deadline. Retrying one that was
+    // released meanwhile is harmless: the release only matches rows still past their deadline.
+    private synchronized void retry(List<Long> ids) {
+        long retryAt = clock.millis() + tickMillis;
+        for (Long id : ids) {
+            if (deadlines.putIfAbsent(id, retryAt) == null) {
+                wheel.schedule(id, retryAt);
+            }
+        }
+    }
+
+    private synchronized List<Long> collectExpired(long nowMillis) {
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(nowMillis, id -> {
+            Long deadline = deadlines.get(id);
+            if (deadline != null && deadline <= nowMillis) {
+                deadlines.remove(id);
+                expired.add(id);
+            }
+        });
+        return expired;
+    }
+}
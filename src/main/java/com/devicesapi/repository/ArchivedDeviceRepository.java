@@ -0,0 +1,33 @@
+package com.devicesapi.repository;
+
+import com.devicesapi.domain.ArchivedDevice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface ArchivedDeviceRepository extends JpaRepository<ArchivedDevice,Long> {
+
+    // Both copies run inside the caller's transaction together with the matching delete,
+    // so a device is never in both tables or in neither.
+    @Modifying
+    @Query(value = "insert into devices_archive (id, name, brand, state, created_at, inactive_since, archived_at) " +
+            "select id, name, brand, state, created_at, inactive_since, :archivedAt from devices where id in :ids",
+            nativeQuery = true)
+    int copyFromDevices(@Param("ids") Collection<Long> ids, @Param("archivedAt") Instant archivedAt);
+
+    // A concurrent restore of the same device waits on the first one's row and then inserts nothing.
+    @Modifying
+    @Query(value = "insert into devices (id, name, brand, state, created_at, inactive_since) " +
+            "select id, name, brand, state, created_at, inactive_since from devices_archive where id = :id " +
+            "on conflict (id) do nothing",
+            nativeQuery = true)
+    int copyToDevices(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from ArchivedDevice a where a.id = :id")
+    int deleteArchived(@Param("id") Long id);
+}
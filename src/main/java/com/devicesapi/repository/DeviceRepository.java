@@ -2,11 +2,75 @@ package com.devicesapi.repository;
 
 import com.devicesapi.domain.Device;
 import com.devicesapi.domain.DeviceState;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface DeviceRepository extends JpaRepository<Device,Long> {
+    String CREATED_IN_RANGE = "select created_at from devices " +
+            "where created_at >= :createdAfter and created_at < :createdBefore " +
+            "union all select created_at from devices_archive " +
+            "where created_at >= :createdAfter and created_at < :createdBefore";
+
     List<Device> getDevicesByBrand(String brand);
     List<Device> getDevicesByState(DeviceState state);
-}
\ No newline at end of file
+    List<Device> getDevicesByCreatedAtGreaterThanEqualAndCreatedAtLessThan(Instant createdAfter, Instant createdBefore);
+
+    // Histograms are grouped in the database so only one row per bucket leaves it. Buckets
+    // are truncated in UTC regardless of the session time zone, and archived devices count
+    // towards the day they were created.
+    @Query(value = "select date_trunc('hour', created_at at time zone 'UTC') as bucket_start, count(*) as devices " +
+            "from (" + CREATED_IN_RANGE + ") created group by bucket_start order by bucket_start", nativeQuery = true)
+    List<Object[]> countCreatedPerHour(@Param("createdAfter") Instant createdAfter, @Param("createdBefore") Instant createdBefore);
+
+    @Query(value = "select date_trunc('day', created_at at time zone 'UTC') as bucket_start, count(*) as devices " +
+            "from (" + CREATED_IN_RANGE + ") created group by bucket_start order by bucket_start", nativeQuery = true)
+    List<Object[]> countCreatedPerDay(@Param("createdAfter") Instant createdAfter, @Param("createdBefore") Instant createdBefore);
+
+    List<Device> findByStateAndLeaseExpiresAtIsNotNull(DeviceState state);
+
+    // Lease transitions are single conditional UPDATEs so that two clients racing
+    // for the same device cannot both win.
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("update Device d set d.state = com.devicesapi.domain.DeviceState.IN_USE, d.leaseExpiresAt = :expiresAt " +
+            "where d.id = :id and d.state = com.devicesapi.domain.DeviceState.AVAILABLE")
+    int acquireLease(@Param("id") Long id, @Param("expiresAt") Instant expiresAt);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("update Device d set d.state = com.devicesapi.domain.DeviceState.AVAILABLE, d.leaseExpiresAt = null " +
+            "where d.id = :id and d.state = com.devicesapi.domain.DeviceState.IN_USE and d.leaseExpiresAt is not null")
+    int releaseLease(@Param("id") Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("update Device d set d.state = com.devicesapi.domain.DeviceState.AVAILABLE, d.leaseExpiresAt = null " +
+            "where d.id in :ids and d.state = com.devicesapi.domain.DeviceState.IN_USE and d.leaseExpiresAt <= :now")
+    int releaseExpiredLeases(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    // Writers lock the row up front, so the archiver (which skips locked rows) cannot move it
+    // away between the read and the flush.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from Device d where d.id = :id")
+    Optional<Device> lockById(@Param("id") Long id);
+
+    // Rows being updated right now are skipped rather than waited for; a later run gets them.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select d.id from Device d where d.state = com.devicesapi.domain.DeviceState.INACTIVE " +
+            "and d.inactiveSince < :cutoff order by d.id")
+    List<Long> lockArchivable(@Param("cutoff") Instant cutoff, Pageable page);
+}
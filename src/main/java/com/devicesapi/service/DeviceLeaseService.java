@@ -0,0 +1,10 @@
+package com.devicesapi.service;
+
+import com.devicesapi.dto.response.DeviceLeaseResponse;
+
+import java.time.Duration;
+
+public interface DeviceLeaseService {
+    DeviceLeaseResponse leaseDevice(Long id, Duration ttl);
+    void releaseLease(Long id);
+}
@@ -0,0 +1,70 @@
+package com.devicesapi.service;
+
+import com.devicesapi.cache.DeviceChangeNotifier;
+import com.devicesapi.domain.Device;
+import com.devicesapi.dto.response.DeviceLeaseResponse;
+import com.devicesapi.exceptions.DeviceNotFoundException;
+import com.devicesapi.exceptions.DeviceOperationException;
+import com.devicesapi.lease.LeaseExpiryScheduler;
+import com.devicesapi.repository.DeviceRepository;
+import com.devicesapi.sharding.ShardRouter;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Service
+@Transactional
+public class DeviceLeaseServiceImpl implements DeviceLeaseService {
+
+    private final DeviceRepository deviceRepository;
+    private final ShardRouter shardRouter;
+    private final LeaseExpiryScheduler leaseExpiryScheduler;
+    private final DeviceChangeNotifier deviceChangeNotifier;
+    private final Duration maxTtl;
+
+    public DeviceLeaseServiceImpl(DeviceRepository deviceRepository,
+                                  ShardRouter shardRouter,
+                                  LeaseExpiryScheduler leaseExpiryScheduler,
+                                  DeviceChangeNotifier deviceChangeNotifier,
+                                  @Value("${devices.lease.max-ttl:24h}") Duration maxTtl) {
+        this.deviceRepository = deviceRepository;
+        this.shardRouter = shardRouter;
+        this.leaseExpiryScheduler = leaseExpiryScheduler;
+        this.deviceChangeNotifier = deviceChangeNotifier;
+        this.maxTtl = maxTtl;
+    }
+
+    @Override
+    public DeviceLeaseResponse leaseDevice(Long id, Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(maxTtl) > 0)
+            throw new DeviceOperationException("Lease ttl must be between 0 and " + maxTtl);
+
+        Instant expiresAt = Instant.now().plus(ttl);
+        if (shardRouter.onShardOf(id, () -> deviceRepository.acquireLease(id, expiresAt)) == 0) {
+            Device device = deviceRepository.findById(id)
+                    .orElseThrow(() -> new DeviceNotFoundException("Device not found"));
+            throw new DeviceOperationException("Device cannot be leased while " + device.getState());
+        }
+
+        leaseExpiryScheduler.schedule(id, expiresAt);
+        deviceChangeNotifier.deviceChanged(id);
+        return DeviceLeaseResponse.builder()
+                .deviceId(id)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    @Override
+    public void releaseLease(Long id) {
+        if (shardRouter.onShardOf(id, () -> deviceRepository.releaseLease(id)) == 0) {
+            if (!deviceRepository.existsById(id))
+                throw new DeviceNotFoundException("Device not found");
+            throw new DeviceOperationException("Device has no active lease");
+        }
+        leaseExpiryScheduler.cancel(id);
+        deviceChangeNotifier.deviceChanged(id);
+    }
+}
@@ -2,8 +2,10 @@ package com.devicesapi.service;
 
 import com.devicesapi.dto.request.CreateDeviceRequest;
 import com.devicesapi.dto.request.UpdateDeviceRequest;
+import com.devicesapi.dto.response.DeviceCreationBucketResponse;
 import com.devicesapi.dto.response.DeviceResponse;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface DeviceService {
@@ -12,6 +14,8 @@ public interface DeviceService {
     List<DeviceResponse> getAllDevices();
     List<DeviceResponse> getDevicesByBrand(String brand);
     List<DeviceResponse> getDevicesByState(String state);
+    List<DeviceResponse> getDevicesCreatedBetween(Instant createdAfter, Instant createdBefore);
+    List<DeviceCreationBucketResponse> getCreationHistogram(String bucket, Instant createdAfter, Instant createdBefore);
     DeviceResponse updateDevice(Long Id, UpdateDeviceRequest updateDeviceRequest);
     void deleteDevice(Long id);
 }
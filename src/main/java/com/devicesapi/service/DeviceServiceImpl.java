@@ -1,28 +1,63 @@
 package com.devicesapi.service;
 
+import com.devicesapi.audit.AuditOperation;
+import com.devicesapi.audit.DeviceAuditLog;
+import com.devicesapi.cache.DeviceCache;
+import com.devicesapi.cache.DeviceChangeNotifier;
+import com.devicesapi.domain.ArchivedDevice;
 import com.devicesapi.domain.Device;
 import com.devicesapi.domain.DeviceState;
 import com.devicesapi.dto.request.CreateDeviceRequest;
 import com.devicesapi.dto.request.UpdateDeviceRequest;
+import com.devicesapi.dto.response.DeviceCreationBucketResponse;
 import com.devicesapi.dto.response.DeviceResponse;
 import com.devicesapi.exceptions.DeviceNotFoundException;
 import com.devicesapi.exceptions.DeviceOperationException;
+import com.devicesapi.repository.ArchivedDeviceRepository;
 import com.devicesapi.repository.DeviceRepository;
+import com.devicesapi.sharding.ShardRouter;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class DeviceServiceImpl implements DeviceService{
 
-    private final DeviceRepository deviceRepository;
+    // Open ends of a createdAt range; both fit every supported database's timestamp type.
+    private static final Instant EARLIEST_CREATED_AT = Instant.EPOCH;
+    private static final Instant LATEST_CREATED_AT = Instant.parse("9999-12-31T00:00:00Z");
 
-    public DeviceServiceImpl(DeviceRepository deviceRepository) {
+    private final DeviceRepository deviceRepository;
+    private final ArchivedDeviceRepository archivedDeviceRepository;
+    private final ShardRouter shardRouter;
+    private final DeviceCache deviceCache;
+    private final DeviceChangeNotifier deviceChangeNotifier;
+    private final DeviceAuditLog deviceAuditLog;
+
+    public DeviceServiceImpl(DeviceRepository deviceRepository,
+                             ArchivedDeviceRepository archivedDeviceRepository,
+                             ShardRouter shardRouter,
+                             DeviceCache deviceCache,
+                             DeviceChangeNotifier deviceChangeNotifier,
+                             DeviceAuditLog deviceAuditLog) {
         this.deviceRepository = deviceRepository;
+        this.archivedDeviceRepository = archivedDeviceRepository;
+        this.shardRouter = shardRouter;
+        this.deviceCache = deviceCache;
+        this.deviceChangeNotifier = deviceChangeNotifier;
+        this.deviceAuditLog = deviceAuditLog;
     }
 
     @Override
@@ -34,27 +69,33 @@ public class DeviceServiceImpl implements DeviceService{
         Device device = new Device(request.getName(), request.getBrand(), state);
         device.setCreatedAt(Instant.now());
 
-        deviceRepository.save(device);
+        shardRouter.onInsertShard(() -> deviceRepository.save(device));
         return toResponse(device);
     }
 
     @Override
     public DeviceResponse getDeviceById(Long id) {
-        Device device = deviceRepository.findById(id)
+        DeviceResponse cached = deviceCache.get(id);
+        if (cached != null) return cached;
+
+        long generation = deviceCache.generation(id);
+        DeviceResponse response = shardRouter.onShardOf(id, () -> deviceRepository.findById(id).map(this::toResponse)
+                        .or(() -> archivedDeviceRepository.findById(id).map(this::toResponse)))
                 .orElseThrow(() -> new DeviceNotFoundException("Device with Id "+ id + "not found "));
-        return toResponse(device);
+        deviceCache.put(id, response, generation);
+        return response;
     }
 
     @Override
     public List<DeviceResponse> getAllDevices() {
-        return deviceRepository.findAll().stream()
+        return shardRouter.scatterGather(deviceRepository::findAll).stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<DeviceResponse> getDevicesByBrand(String brand) {
-        return deviceRepository.getDevicesByBrand(brand).stream()
+        return shardRouter.scatterGather(() -> deviceRepository.getDevicesByBrand(brand)).stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
     }
@@ -62,14 +103,49 @@ public class DeviceServiceImpl implements DeviceService{
     @Override
     public List<DeviceResponse> getDevicesByState(String state) {
         DeviceState deviceState = DeviceState.valueOf(state.toUpperCase());
-        return deviceRepository.getDevicesByState(deviceState).stream()
+        return shardRouter.scatterGather(() -> deviceRepository.getDevicesByState(deviceState)).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<DeviceResponse> getDevicesCreatedBetween(Instant createdAfter, Instant createdBefore) {
+        Instant from = createdAfter != null ? createdAfter : EARLIEST_CREATED_AT;
+        Instant to = createdBefore != null ? createdBefore : LATEST_CREATED_AT;
+        return shardRouter.scatterGather(
+                        () -> deviceRepository.getDevicesByCreatedAtGreaterThanEqualAndCreatedAtLessThan(from, to)).stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<DeviceCreationBucketResponse> getCreationHistogram(String bucket, Instant createdAfter, Instant createdBefore) {
+        Instant from = createdAfter != null ? createdAfter : EARLIEST_CREATED_AT;
+        Instant to = createdBefore != null ? createdBefore : LATEST_CREATED_AT;
+        Supplier<List<Object[]>> query = switch (bucket.toLowerCase()) {
+            case "hour" -> () -> deviceRepository.countCreatedPerHour(from, to);
+            case "day" -> () -> deviceRepository.countCreatedPerDay(from, to);
+            default -> throw new DeviceOperationException("Unsupported bucket " + bucket + ", expected hour or day");
+        };
+
+        // Each shard returns its own buckets; the same bucket may come back from several.
+        Map<Instant, Long> counts = new TreeMap<>();
+        for (List<Object[]> rows : shardRouter.onEveryShard(query)) {
+            for (Object[] row : rows) {
+                counts.merge(toInstant(row[0]), ((Number) row[1]).longValue(), Long::sum);
+            }
+        }
+        return counts.entrySet().stream()
+                .map(entry -> DeviceCreationBucketResponse.builder()
+                        .bucketStart(entry.getKey())
+                        .count(entry.getValue())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
     @Override
     public DeviceResponse updateDevice(Long id, UpdateDeviceRequest request) {
-        Device device = deviceRepository.findById(id)
+        Device device = shardRouter.onShardOf(id, () -> findOrRestore(id))
                 .orElseThrow(() -> new DeviceNotFoundException("Device not found"));
 
         if (device.getState() == DeviceState.IN_USE) {
@@ -77,24 +153,57 @@ public class DeviceServiceImpl implements DeviceService{
                 throw new DeviceOperationException("Cannot update name or brand of device in use");
         }
 
+        DeviceState previousState = device.getState();
         if (request.getName() != null) device.setName(request.getName());
         if (request.getBrand() != null) device.setBrand(request.getBrand());
-        if (request.getState() != null)
+        if (request.getState() != null) {
             device.setState(DeviceState.valueOf(request.getState().toUpperCase()));
+            device.setLeaseExpiresAt(null); // a manual state change ends any lease
+        }
 
         deviceRepository.save(device);
+        deviceChangeNotifier.deviceChanged(id);
+        if (device.getState() != previousState) {
+            deviceAuditLog.record(id, AuditOperation.UPDATE, previousState, device.getState());
+        }
         return toResponse(device);
     }
 
     @Override
     public void deleteDevice(Long id) {
-        Device device = deviceRepository.findById(id)
+        Device device = shardRouter.onShardOf(id, () -> findOrRestore(id))
                 .orElseThrow(() -> new DeviceNotFoundException("Device not found"));
 
         if (device.getState() == DeviceState.IN_USE)  // Preventing D
             throw new DeviceOperationException("Cannot delete a device that is in use");
 
         deviceRepository.delete(device);
+        deviceChangeNotifier.deviceChanged(id);
+        deviceAuditLog.record(id, AuditOperation.DELETE, device.getState(), null);
+    }
+
+    // Archived devices are moved back into the devices table before they can be changed. The
+    // row stays locked until commit; if the archiver got there first, this waits for it and
+    // then finds the device in the archive. When two requests restore the same device, the
+    // second one's copy inserts nothing, and it waits on the lock of the row the first put back.
+    private Optional<Device> findOrRestore(Long id) {
+        Optional<Device> device = deviceRepository.lockById(id);
+        if (device.isPresent()) {
+            return device;
+        }
+        if (archivedDeviceRepository.copyToDevices(id) > 0) {
+            archivedDeviceRepository.deleteArchived(id);
+        }
+        return deviceRepository.lockById(id);
+    }
+
+    // Native queries surface the truncated UTC timestamp as whatever type the driver prefers.
+    private static Instant toInstant(Object bucketStart) {
+        if (bucketStart instanceof Instant instant) return instant;
+        if (bucketStart instanceof OffsetDateTime offsetDateTime) return offsetDateTime.toInstant();
+        if (bucketStart instanceof Timestamp timestamp) return timestamp.toLocalDateTime().toInstant(ZoneOffset.UTC);
+        if (bucketStart instanceof LocalDateTime localDateTime) return localDateTime.toInstant(ZoneOffset.UTC);
+        throw new IllegalStateException("Unexpected bucket type " + bucketStart.getClass().getName());
     }
 
     private DeviceResponse toResponse(Device device) {
@@ -106,4 +215,14 @@ public class DeviceServiceImpl implements DeviceService{
                 .createdAt(device.getCreatedAt())
                 .build();
     }
+
+    private DeviceResponse toResponse(ArchivedDevice device) {
+        return DeviceResponse.builder()
+                .id(device.getId())
+                .name(device.getName())
+                .brand(device.getBrand())
+                .state(device.getState().name())
+                .createdAt(device.getCreatedAt())
+                .build();
+    }
 }
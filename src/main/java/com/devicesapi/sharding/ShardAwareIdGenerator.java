@@ -0,0 +1,19 @@
+package com.devicesapi.sharding;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+/**
+ * Draws the next value from the sequence of the shard the session is connected to and,
+ * when sharding is in use, tags it with that shard. Without a shard in context the plain
+ * sequence value is used, which keeps single-database ids unchanged.
+ */
+public class ShardAwareIdGenerator extends SequenceStyleGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        long sequence = ((Number) super.generate(session, object)).longValue();
+        Integer shard = ShardContext.current();
+        return shard == null ? sequence : ShardIds.encode(sequence, shard);
+    }
+}
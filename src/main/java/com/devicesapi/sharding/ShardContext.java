@@ -0,0 +1,25 @@
+package com.devicesapi.sharding;
+
+/**
+ * Holds the shard the current thread is working against. {@code null} means "default
+ * shard" and is what every thread starts with.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
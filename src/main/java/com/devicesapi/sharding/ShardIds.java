@@ -0,0 +1,23 @@
+package com.devicesapi.sharding;
+
+/**
+ * Device ids carry their shard in the low {@link #SHARD_BITS} bits, above which sits the
+ * value of that shard's own id sequence. Ids therefore stay unique across shards without
+ * any coordination, and still grow roughly with creation order.
+ */
+public final class ShardIds {
+
+    public static final int SHARD_BITS = 10;
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+
+    private ShardIds() {
+    }
+
+    public static long encode(long sequence, int shard) {
+        return (sequence << SHARD_BITS) | shard;
+    }
+
+    public static int shardOf(long id) {
+        return (int) (id & (MAX_SHARDS - 1));
+    }
+}
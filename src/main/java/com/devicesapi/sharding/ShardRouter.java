@@ -0,0 +1,166 @@
+package com.devicesapi.sharding;
+
+import com.devicesapi.domain.Device;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard a piece of repository work runs on.
+ * <p>
+ * Point operations run on the shard encoded in the device id, inserts are spread
+ * round-robin, and list and aggregate queries run on every shard in parallel, each in its
+ * own read-only transaction, before being k-way merged by id or combined by the caller.
+ * With a single shard every method simply runs the work in place.
+ * <p>
+ * A transaction is pinned to the shard of its first statement, so one transaction must
+ * not touch more than one shard.
+ */
+@Component
+public class ShardRouter {
+
+    private static final Comparator<Device> BY_ID = Comparator.comparing(Device::getId);
+
+    private final int shardCount;
+    private final TransactionOperations readTransaction;
+    private final ExecutorService executor;
+    private final AtomicInteger nextInsertShard = new AtomicInteger();
+
+    @Autowired
+    public ShardRouter(ShardingProperties properties, PlatformTransactionManager transactionManager) {
+        this(properties.shardCount(), readOnly(transactionManager),
+                properties.shardCount() > 1 ? Executors.newVirtualThreadPerTaskExecutor() : null);
+    }
+
+    ShardRouter(int shardCount, TransactionOperations readTransaction, ExecutorService executor) {
+        if (shardCount < 1 || shardCount > ShardIds.MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard count must be between 1 and " + ShardIds.MAX_SHARDS);
+        }
+        this.shardCount = shardCount;
+        this.readTransaction = readTransaction;
+        this.executor = executor;
+    }
+
+    public static ShardRouter single() {
+        return new ShardRouter(1, TransactionOperations.withoutTransaction(), null);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public <T> T onShardOf(Long id, Supplier<T> work) {
+        return onShard(ShardIds.shardOf(id), work);
+    }
+
+    public <T> T onInsertShard(Supplier<T> work) {
+        return onShard(Math.floorMod(nextInsertShard.getAndIncrement(), shardCount), work);
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+        if (shardCount == 1) {
+            return work.get();
+        }
+        Integer previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    public Map<Integer, List<Long>> groupByShard(Collection<Long> ids) {
+        Map<Integer, List<Long>> byShard = new TreeMap<>();
+        for (Long id : ids) {
+            int shard = shardCount == 1 ? 0 : ShardIds.shardOf(id);
+            byShard.computeIfAbsent(shard, s -> new ArrayList<>()).add(id);
+        }
+        return byShard;
+    }
+
+    /**
+     * Runs {@code query} against every shard and merges the results into one list ordered by id.
+     */
+    public List<Device> scatterGather(Supplier<List<Device>> query) {
+        if (shardCount == 1) {
+            return query.get();
+        }
+        return merge(onEveryShard(() -> {
+            List<Device> devices = new ArrayList<>(query.get());
+            devices.sort(BY_ID);
+            return devices;
+        }));
+    }
+
+    /**
+     * Runs {@code query} against every shard in parallel and returns the per-shard results
+     * in shard order, leaving it to the caller to combine them.
+     */
+    public <T> List<T> onEveryShard(Supplier<T> query) {
+        if (shardCount == 1) {
+            return List.of(query.get());
+        }
+        List<CompletableFuture<T>> parts = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            parts.add(CompletableFuture.supplyAsync(
+                    () -> onShard(target, () -> readTransaction.execute(status -> query.get())), executor));
+        }
+        CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new)).join();
+        return parts.stream().map(CompletableFuture::join).toList();
+    }
+
+    static List<Device> merge(List<List<Device>> sortedParts) {
+        int total = sortedParts.stream().mapToInt(List::size).sum();
+        List<Device> merged = new ArrayList<>(total);
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing(head -> head.device, BY_ID));
+        for (List<Device> part : sortedParts) {
+            Iterator<Device> iterator = part.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), iterator));
+            }
+        }
+        while (!heads.isEmpty()) {
+            Head head = heads.poll();
+            merged.add(head.device);
+            if (head.rest.hasNext()) {
+                heads.add(new Head(head.rest.next(), head.rest));
+            }
+        }
+        return merged;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static TransactionOperations readOnly(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private record Head(Device device, Iterator<Device> rest) {
+    }
+}
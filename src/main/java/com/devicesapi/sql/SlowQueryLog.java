@@ -0,0 +1,65 @@
+package com.devicesapi.sql;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Logs a sample of statements slower than the threshold. Formatting and logging happen on a
+ * background thread behind a small bounded queue; when it is full the entry is dropped
+ * instead of slowing the query path. Literals are masked and bind values are never
+ * captured, so no device data reaches the log.
+ */
+@Component
+public class SlowQueryLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final ThreadPoolExecutor executor;
+
+    public SlowQueryLog(@Value("${devices.sql.slow-query-threshold:200ms}") Duration threshold,
+                        @Value("${devices.sql.slow-query-sample-rate:0.1}") double sampleRate) {
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1000),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-log");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    void offer(String sql, long nanos) {
+        if (nanos < thresholdNanos || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        executor.execute(() -> log.warn("Slow SQL ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(nanos), redact(sql)));
+    }
+
+    static String redact(String sql) {
+        if (sql == null) {
+            return "<batch>";
+        }
+        String masked = STRING_LITERAL.matcher(sql).replaceAll("'?'");
+        return NUMERIC_LITERAL.matcher(masked).replaceAll("?");
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+}
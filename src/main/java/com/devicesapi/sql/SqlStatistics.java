@@ -0,0 +1,40 @@
+package com.devicesapi.sql;
+
+/**
+ * Per-thread running totals of executed JDBC statements. Callers take a snapshot before a
+ * unit of work and compare after it, which keeps the hot path to two field updates.
+ */
+public final class SqlStatistics {
+
+    private static final ThreadLocal<Counter> COUNTER = ThreadLocal.withInitial(Counter::new);
+
+    private SqlStatistics() {
+    }
+
+    public static Snapshot snapshot() {
+        Counter counter = COUNTER.get();
+        return new Snapshot(counter.statements, counter.nanos);
+    }
+
+    static void record(long nanos) {
+        Counter counter = COUNTER.get();
+        counter.statements++;
+        counter.nanos += nanos;
+    }
+
+    public record Snapshot(long statements, long nanos) {
+
+        public Snapshot since(Snapshot earlier) {
+            return new Snapshot(statements - earlier.statements, nanos - earlier.nanos);
+        }
+
+        public Snapshot elapsed() {
+            return snapshot().since(this);
+        }
+    }
+
+    private static final class Counter {
+        private long statements;
+        private long nanos;
+    }
+}
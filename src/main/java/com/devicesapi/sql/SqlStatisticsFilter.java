@@ -0,0 +1,49 @@
+package com.devicesapi.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports how many statements each request executed on its own thread and how long they
+ * took. Requests above {@code devices.sql.request-statement-warn-threshold} are logged at
+ * WARN as likely N+1 patterns; everything else only at DEBUG.
+ */
+@Component
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatisticsFilter.class);
+
+    private final long warnThreshold;
+
+    public SqlStatisticsFilter(@Value("${devices.sql.request-statement-warn-threshold:20}") long warnThreshold) {
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatistics.Snapshot start = SqlStatistics.snapshot();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatistics.Snapshot used = start.elapsed();
+            if (used.statements() > warnThreshold) {
+                log.warn("{} {} executed {} SQL statements in {} ms", request.getMethod(), request.getRequestURI(),
+                        used.statements(), TimeUnit.NANOSECONDS.toMillis(used.nanos()));
+            } else if (log.isDebugEnabled() && used.statements() > 0) {
+                log.debug("{} {} executed {} SQL statements in {} ms", request.getMethod(), request.getRequestURI(),
+                        used.statements(), TimeUnit.NANOSECONDS.toMillis(used.nanos()));
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.devicesapi.sql;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SqlTrackingConfig {
+
+    /**
+     * Wraps the application's datasources in {@link StatementTrackingProxy}. Routing
+     * datasources are skipped: they only sit behind another datasource, which is wrapped.
+     */
+    @Bean
+    static BeanPostProcessor statementTrackingPostProcessor(Environment environment,
+                                                            ObjectProvider<SlowQueryLog> slowQueryLog) {
+        boolean enabled = environment.getProperty("devices.sql.tracking-enabled", Boolean.class, true);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource && !(bean instanceof AbstractRoutingDataSource)) {
+                    return StatementTrackingProxy.wrap(dataSource, slowQueryLog.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
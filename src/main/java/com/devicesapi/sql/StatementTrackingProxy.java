@@ -0,0 +1,79 @@
+package com.devicesapi.sql;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * JDK proxies around a {@link DataSource}, its connections and their statements that time
+ * every execute call. Everything else, including {@code unwrap}, goes straight to the
+ * driver objects.
+ */
+final class StatementTrackingProxy implements InvocationHandler {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final Object target;
+    private final SlowQueryLog slowQueryLog;
+    private final String sql; // for prepared and callable statements
+
+    private StatementTrackingProxy(Object target, SlowQueryLog slowQueryLog, String sql) {
+        this.target = target;
+        this.slowQueryLog = slowQueryLog;
+        this.sql = sql;
+    }
+
+    static DataSource wrap(DataSource dataSource, SlowQueryLog slowQueryLog) {
+        // Stay AutoCloseable so the container still shuts the pool down.
+        Class<?>[] types = dataSource instanceof AutoCloseable
+                ? new Class<?>[]{DataSource.class, AutoCloseable.class}
+                : new Class<?>[]{DataSource.class};
+        return (DataSource) Proxy.newProxyInstance(StatementTrackingProxy.class.getClassLoader(), types,
+                new StatementTrackingProxy(dataSource, slowQueryLog, null));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (target instanceof Statement && EXECUTE_METHODS.contains(name)) {
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(method, args);
+            } finally {
+                long nanos = System.nanoTime() - start;
+                SqlStatistics.record(nanos);
+                slowQueryLog.offer(args != null && args.length > 0 && args[0] instanceof String text ? text : sql, nanos);
+            }
+        }
+
+        Object result = invokeTarget(method, args);
+        if (target instanceof DataSource && "getConnection".equals(name)) {
+            return proxy(Connection.class, result, slowQueryLog, null);
+        }
+        if (target instanceof Connection && result instanceof Statement
+                && (name.equals("createStatement") || name.startsWith("prepare"))) {
+            return proxy(method.getReturnType(), result, slowQueryLog, name.startsWith("prepare") ? (String) args[0] : null);
+        }
+        return result;
+    }
+
+    private Object invokeTarget(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, SlowQueryLog slowQueryLog, String sql) {
+        return (T) Proxy.newProxyInstance(StatementTrackingProxy.class.getClassLoader(), new Class<?>[]{type},
+                new StatementTrackingProxy(target, slowQueryLog, sql));
+    }
+}
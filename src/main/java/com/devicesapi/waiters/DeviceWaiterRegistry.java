@@ -0,0 +1,207 @@
+package com.devicesapi.waiters;
+
+import com.devicesapi.domain.DeviceState;
+import com.devicesapi.dto.response.DeviceResponse;
+import com.devicesapi.exceptions.DeviceNotFoundException;
+import com.devicesapi.service.DeviceService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parks requests waiting for a device to reach a state until a write says it might have.
+ * <p>
+ * Waiters hold no thread: each is a {@link DeferredResult} filed under its device id, and
+ * the servlet container enforces the timeout. When {@link #signal} reports a change, the
+ * device is read once (through the cache) and every waiter whose target matches is
+ * completed, so the database sees one read per change rather than one per waiter. Those
+ * reads run on {@code devices.await.signal-threads} threads, and an id already queued is not
+ * queued again, so even a {@link #signalAll} over every waiter cannot exhaust the connection
+ * pool. The total number of waiters is capped; beyond it requests are turned away with 503.
+ */
+@Component
+public class DeviceWaiterRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceWaiterRegistry.class);
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final DeviceService deviceService;
+    private final Executor executor;
+    private final int maxWaiters;
+    private final Duration maxTimeout;
+    private final Map<Long, List<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Autowired
+    public DeviceWaiterRegistry(DeviceService deviceService,
+                                @Value("${devices.await.max-waiters:100000}") int maxWaiters,
+                                @Value("${devices.await.max-timeout:60s}") Duration maxTimeout,
+                                @Value("${devices.await.signal-threads:4}") int signalThreads) {
+        this(deviceService,
+                Executors.newFixedThreadPool(signalThreads, Thread.ofPlatform().daemon().name("device-waiters-", 0).factory()),
+                maxWaiters, maxTimeout);
+    }
+
+    DeviceWaiterRegistry(DeviceService deviceService, Executor executor, int maxWaiters, Duration maxTimeout) {
+        this.deviceService = deviceService;
+        this.executor = executor;
+        this.maxWaiters = maxWaiters;
+        this.maxTimeout = maxTimeout;
+    }
+
+    /**
+     * Returns a result that completes with the device once it is in {@code state}, with 204
+     * if that does not happen within {@code timeout}, or right away if it already is. A
+     * timeout that is not positive is answered with 400 and an unknown device with 404.
+     */
+    public DeferredResult<ResponseEntity<DeviceResponse>> await(Long id, DeviceState state, Duration timeout) {
+        // The container treats a non-positive async timeout as "never", which would pin a slot for good.
+        if (timeout.isZero() || timeout.isNegative()) {
+            return completed(ResponseEntity.badRequest().build());
+        }
+        if (count.incrementAndGet() > maxWaiters) {
+            count.decrementAndGet();
+            return completed(serviceUnavailable());
+        }
+
+        Duration effective = timeout.compareTo(maxTimeout) > 0 ? maxTimeout : timeout;
+        DeferredResult<ResponseEntity<DeviceResponse>> result =
+                new DeferredResult<>(effective.toMillis(), ResponseEntity.noContent().build());
+        Waiter waiter = new Waiter(state, result);
+        waiters.compute(id, (key, list) -> {
+            List<Waiter> updated = list != null ? list : new ArrayList<>(2);
+            updated.add(waiter);
+            return updated;
+        });
+        result.onCompletion(() -> remove(id, waiter));
+
+        // Registered before reading, so a change committed in between still signals us.
+        try {
+            complete(id, deviceService.getDeviceById(id));
+        } catch (DeviceNotFoundException e) {
+            remove(id, waiter);
+            result.setResult(ResponseEntity.notFound().build());
+        } catch (RuntimeException e) {
+            remove(id, waiter);
+            throw e;
+        }
+        return result;
+    }
+
+    /**
+     * Re-checks the waiters of a device after a committed change. Cheap when nobody waits.
+     */
+    public void signal(Long id) {
+        if (waiters.containsKey(id) && queued.add(id)) {
+            executor.execute(() -> resolve(id));
+        }
+    }
+
+    /** Re-checks every waiter, e.g. after changes may have been missed. */
+    public void signalAll() {
+        waiters.keySet().forEach(this::signal);
+    }
+
+    public int size() {
+        return count.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdown();
+        }
+    }
+
+    private void resolve(Long id) {
+        // Dequeued before reading, so a change committed during the read queues a fresh check.
+        queued.remove(id);
+        DeviceResponse device;
+        try {
+            device = deviceService.getDeviceById(id);
+        } catch (DeviceNotFoundException e) {
+            for (Waiter waiter : take(id, null)) {
+                waiter.result().setResult(ResponseEntity.notFound().build());
+            }
+            return;
+        } catch (RuntimeException e) {
+            // The change may have been what they were waiting for; let them ask again.
+            List<Waiter> failed = take(id, null);
+            log.warn("Failed to re-check {} waiters of device {}", failed.size(), id, e);
+            for (Waiter waiter : failed) {
+                waiter.result().setResult(serviceUnavailable());
+            }
+            return;
+        }
+        complete(id, device);
+    }
+
+    private void complete(Long id, DeviceResponse device) {
+        DeviceState state = DeviceState.valueOf(device.getState());
+        for (Waiter waiter : take(id, state)) {
+            waiter.result().setResult(ResponseEntity.ok(device));
+        }
+    }
+
+    // Removes and returns the waiters for `state`, or all of them when it is null.
+    private List<Waiter> take(Long id, DeviceState state) {
+        List<Waiter> taken = new ArrayList<>();
+        waiters.computeIfPresent(id, (key, list) -> {
+            list.removeIf(waiter -> {
+                if (state == null || waiter.state() == state) {
+                    taken.add(waiter);
+                    return true;
+                }
+                return false;
+            });
+            return list.isEmpty() ? null : list;
+        });
+        count.addAndGet(-taken.size());
+        return taken;
+    }
+
+    private void remove(Long id, Waiter waiter) {
+        boolean[] removed = new boolean[1];
+        waiters.computeIfPresent(id, (key, list) -> {
+            removed[0] = list.remove(waiter);
+            return list.isEmpty() ? null : list;
+        });
+        if (removed[0]) {
+            count.decrementAndGet();
+        }
+    }
+
+    private static DeferredResult<ResponseEntity<DeviceResponse>> completed(ResponseEntity<DeviceResponse> response) {
+        DeferredResult<ResponseEntity<DeviceResponse>> result = new DeferredResult<>();
+        result.setResult(response);
+        return result;
+    }
+
+    private static ResponseEntity<DeviceResponse> serviceUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .build();
+    }
+
+    private record Waiter(DeviceState state, DeferredResult<ResponseEntity<DeviceResponse>> result) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.devicesapi.admission;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setup() {
+        filter = new AdmissionControlFilter(true, 2, 1, 10, 0.8, Duration.ofSeconds(2));
+    }
+
+    @Test
+    void testEndpointClass_classification() {
+        assertEquals(EndpointClass.POINT_READ, EndpointClass.of("GET", "/devices/42"));
+        assertEquals(EndpointClass.POINT_READ, EndpointClass.of("GET", "/devices/42/await"));
+        assertEquals(EndpointClass.LISTING, EndpointClass.of("GET", "/devices/42/history"));
+        assertEquals(EndpointClass.LISTING, EndpointClass.of("GET", "/devices"));
+        assertEquals(EndpointClass.LISTING, EndpointClass.of("GET", "/devices/stats/created"));
+        assertEquals(EndpointClass.WRITE, EndpointClass.of("PATCH", "/devices/42"));
+        assertEquals(EndpointClass.WRITE, EndpointClass.of("POST", "/devices/42/lease"));
+        assertNull(EndpointClass.of("GET", "/v3/api-docs"));
+    }
+
+    @Test
+    void testAdmittedRequest_releasesSlot() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = perform("GET", "/devices/1", chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertEquals(0, filter.limiters().get(EndpointClass.POINT_READ).getInflight());
+    }
+
+    @Test
+    void testSaturatedClass_isShedWithRetryAfter() throws Exception {
+        AdaptiveConcurrencyLimiter listing = filter.limiters().get(EndpointClass.LISTING);
+        listing.tryAcquire();
+        listing.tryAcquire();
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = perform("GET", "/devices", chain);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+        assertEquals(1, listing.getRejected());
+    }
+
+    @Test
+    void testListing_yieldsToBusyPointReads() throws Exception {
+        AdaptiveConcurrencyLimiter pointReads = filter.limiters().get(EndpointClass.POINT_READ);
+        pointReads.tryAcquire();
+        pointReads.tryAcquire();
+
+        MockHttpServletResponse response = perform("GET", "/devices", new MockFilterChain());
+
+        assertEquals(503, response.getStatus());
+        assertEquals(0, filter.limiters().get(EndpointClass.LISTING).getInflight());
+        assertEquals(1, filter.limiters().get(EndpointClass.LISTING).getRejected());
+    }
+
+    @Test
+    void testPathsOutsideDeviceApi_areNotLimited() throws Exception {
+        AdaptiveConcurrencyLimiter pointReads = filter.limiters().get(EndpointClass.POINT_READ);
+        pointReads.tryAcquire();
+        pointReads.tryAcquire();
+
+        MockHttpServletResponse response = perform("GET", "/v3/api-docs", new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void testOverloadFailure_backsOffLimit() {
+        filter = new AdmissionControlFilter(true, 10, 1, 10, 0.8, Duration.ofSeconds(1));
+        FilterChain failing = (request, response) -> {
+            throw new CannotCreateTransactionException("Connection is not available, request timed out");
+        };
+
+        assertThrows(CannotCreateTransactionException.class, () -> perform("PATCH", "/devices/1", failing));
+
+        AdaptiveConcurrencyLimiter writes = filter.limiters().get(EndpointClass.WRITE);
+        assertEquals(9, writes.getLimit());
+        assertEquals(1, writes.getDropped());
+        assertEquals(0, writes.getInflight());
+    }
+
+    private MockHttpServletResponse perform(String method, String uri, FilterChain chain)
+            throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,67 @@
+package com.devicesapi.archive;
+
+import com.devicesapi.repository.ArchivedDeviceRepository;
+import com.devicesapi.repository.DeviceRepository;
+import com.devicesapi.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DeviceArchiverTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T00:00:00Z");
+    private static final Duration INACTIVE_AFTER = Duration.ofDays(90);
+
+    private DeviceRepository deviceRepository;
+    private ArchivedDeviceRepository archivedDeviceRepository;
+
+    @BeforeEach
+    void setup() {
+        deviceRepository = mock(DeviceRepository.class);
+        archivedDeviceRepository = mock(ArchivedDeviceRepository.class);
+    }
+
+    @Test
+    void testArchiveBatch_movesLockedDevices() {
+        when(deviceRepository.lockArchivable(NOW.minus(INACTIVE_AFTER), PageRequest.of(0, 2)))
+                .thenReturn(List.of(3L, 7L));
+
+        archiver(true).archiveBatch();
+
+        verify(archivedDeviceRepository).copyFromDevices(List.of(3L, 7L), NOW);
+        verify(deviceRepository).deleteAllByIdInBatch(List.of(3L, 7L));
+    }
+
+    @Test
+    void testArchiveBatch_nothingDue() {
+        when(deviceRepository.lockArchivable(any(Instant.class), any())).thenReturn(List.of());
+
+        archiver(true).archiveBatch();
+
+        verifyNoInteractions(archivedDeviceRepository);
+        verify(deviceRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void testArchiveBatch_disabled() {
+        archiver(false).archiveBatch();
+
+        verifyNoInteractions(deviceRepository, archivedDeviceRepository);
+    }
+
+    private DeviceArchiver archiver(boolean enabled) {
+        return new DeviceArchiver(deviceRepository, archivedDeviceRepository, ShardRouter.single(),
+                TransactionOperations.withoutTransaction(), Clock.fixed(NOW, ZoneOffset.UTC),
+                enabled, INACTIVE_AFTER, 2);
+    }
+}
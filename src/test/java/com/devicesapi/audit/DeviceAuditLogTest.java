@@ -0,0 +1,119 @@
+package com.devicesapi.audit;
+
+import com.devicesapi.domain.DeviceState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeviceAuditLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testHistory_newestFirstForDevice() throws Exception {
+        DeviceAuditLog auditLog = new DeviceAuditLog(directory, 16, 4, 64);
+        auditLog.record(1L, AuditOperation.UPDATE, DeviceState.AVAILABLE, DeviceState.IN_USE);
+        auditLog.record(2L, AuditOperation.UPDATE, DeviceState.AVAILABLE, DeviceState.INACTIVE);
+        auditLog.record(1L, AuditOperation.UPDATE, DeviceState.IN_USE, DeviceState.AVAILABLE);
+        auditLog.record(1L, AuditOperation.DELETE, DeviceState.AVAILABLE, null);
+        assertTrue(auditLog.awaitWritten(Duration.ofSeconds(5)));
+
+        List<AuditRecord> history = auditLog.history(1L, 10);
+
+        assertEquals(3, history.size());
+        assertEquals(AuditOperation.DELETE, history.get(0).operation());
+        assertNull(history.get(0).toState());
+        assertEquals(DeviceState.IN_USE, history.get(2).toState());
+        assertTrue(history.get(0).sequence() > history.get(1).sequence());
+        auditLog.close();
+    }
+
+    @Test
+    void testRecords_survivesReopen() throws Exception {
+        DeviceAuditLog auditLog = new DeviceAuditLog(directory, 4, 8, 64);
+        for (int i = 0; i < 10; i++) {
+            auditLog.record(7L, AuditOperation.UPDATE, DeviceState.AVAILABLE, DeviceState.IN_USE);
+        }
+        assertTrue(auditLog.awaitWritten(Duration.ofSeconds(5)));
+        auditLog.close();
+
+        DeviceAuditLog reopened = new DeviceAuditLog(directory, 4, 8, 64);
+        reopened.record(7L, AuditOperation.DELETE, DeviceState.AVAILABLE, null);
+        assertTrue(reopened.awaitWritten(Duration.ofSeconds(5)));
+
+        List<AuditRecord> history = reopened.history(7L, 100);
+        assertEquals(11, history.size());
+        assertEquals(11L, history.get(0).sequence());
+        reopened.close();
+    }
+
+    @Test
+    void testRoll_retainsOnlyMaxSegments() throws Exception {
+        DeviceAuditLog auditLog = new DeviceAuditLog(directory, 4, 2, 64);
+        for (int i = 0; i < 20; i++) {
+            auditLog.record(3L, AuditOperation.UPDATE, DeviceState.AVAILABLE, DeviceState.IN_USE);
+        }
+        assertTrue(auditLog.awaitWritten(Duration.ofSeconds(5)));
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.filter(AuditSegment::isSegmentFile).count());
+        }
+        assertEquals(8, auditLog.history(3L, 100).size());
+        auditLog.close();
+    }
+
+    @Test
+    void testSegmentFilter_staysSelectiveWhenFull() throws Exception {
+        int capacity = 20_000;
+        AuditSegment segment = AuditSegment.create(directory, 1, capacity);
+        for (long deviceId = 1; deviceId <= capacity; deviceId++) {
+            segment.append(new AuditRecord(0, deviceId, 0, AuditOperation.UPDATE, DeviceState.AVAILABLE, DeviceState.IN_USE));
+        }
+
+        int falsePositives = 0;
+        for (long deviceId = capacity + 1; deviceId <= 2L * capacity; deviceId++) {
+            if (segment.mightContain(deviceId)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(segment.mightContain(capacity / 2));
+        assertTrue(falsePositives < capacity / 50, "false positives: " + falsePositives);
+        segment.delete();
+    }
+
+    @Test
+    void testSegmentIndex_sameHistoryBeforeAndAfterSealAndReopen() throws Exception {
+        int capacity = 1_000;
+        AuditSegment segment = AuditSegment.create(directory, 1, capacity);
+        for (int i = 0; i < capacity; i++) {
+            segment.append(new AuditRecord(0, i % 7, i, AuditOperation.UPDATE, DeviceState.AVAILABLE, DeviceState.IN_USE));
+        }
+        List<AuditRecord> active = new ArrayList<>();
+        segment.collectNewestFirst(3L, 50, active);
+
+        segment.seal();
+        List<AuditRecord> sealed = new ArrayList<>();
+        segment.collectNewestFirst(3L, 50, sealed);
+
+        AuditSegment reopened = AuditSegment.open(directory.resolve(String.format("%020d.audit", 1)), capacity);
+        List<AuditRecord> afterReopen = new ArrayList<>();
+        reopened.collectNewestFirst(3L, 50, afterReopen);
+
+        assertEquals(50, active.size());
+        assertTrue(active.stream().allMatch(record -> record.deviceId() == 3L));
+        assertTrue(active.get(0).sequence() > active.get(1).sequence());
+        assertEquals(active, sealed);
+        assertEquals(active, afterReopen);
+        assertTrue(Files.exists(directory.resolve(String.format("%020d.idx", 1))));
+    }
+}
@@ -0,0 +1,82 @@
+package com.devicesapi.cache;
+
+import com.devicesapi.DevicesApiApplication;
+import com.devicesapi.dto.request.CreateDeviceRequest;
+import com.devicesapi.dto.request.UpdateDeviceRequest;
+import com.devicesapi.dto.response.DeviceResponse;
+import com.devicesapi.service.DeviceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs two application nodes against one PostgreSQL database, e.g. the one from compose.yml:
+ * {@code DEVICES_IT_DB_URL=jdbc:postgresql://localhost:5432/devices mvn test}
+ */
+@EnabledIfEnvironmentVariable(named = "DEVICES_IT_DB_URL", matches = ".+")
+class ClusterCacheInvalidationTest {
+
+    @TempDir
+    Path auditDirectory;
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @BeforeEach
+    void startNodes() {
+        nodeA = startNode("a");
+        nodeB = startNode("b");
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void testUpdateOnOneNode_evictsCacheOnOther() throws Exception {
+        DeviceService serviceA = nodeA.getBean(DeviceService.class);
+        DeviceService serviceB = nodeB.getBean(DeviceService.class);
+
+        CreateDeviceRequest create = new CreateDeviceRequest();
+        create.setName("Phone X");
+        create.setBrand("Samsung");
+        Long id = serviceA.createDevice(create).getId();
+
+        assertEquals("AVAILABLE", serviceB.getDeviceById(id).getState());
+        assertNotNull(nodeB.getBean(DeviceCache.class).get(id));
+
+        UpdateDeviceRequest update = new UpdateDeviceRequest();
+        update.setState("INACTIVE");
+        serviceA.updateDevice(id, update);
+
+        DeviceResponse seenByB = serviceB.getDeviceById(id);
+        for (int attempt = 0; attempt < 50 && !"INACTIVE".equals(seenByB.getState()); attempt++) {
+            Thread.sleep(100);
+            seenByB = serviceB.getDeviceById(id);
+        }
+        assertEquals("INACTIVE", seenByB.getState());
+
+        serviceA.deleteDevice(id);
+    }
+
+    private ConfigurableApplicationContext startNode(String name) {
+        return new SpringApplicationBuilder(DevicesApiApplication.class)
+                .web(WebApplicationType.NONE)
+                // Command-line arguments, unlike builder properties, take precedence over application.yml.
+                .run("--spring.datasource.url=" + System.getenv("DEVICES_IT_DB_URL"),
+                        "--spring.jpa.show-sql=false",
+                        "--devices.cache.cluster-invalidation.enabled=true",
+                        "--devices.audit.directory=" + auditDirectory.resolve(name));
+    }
+}
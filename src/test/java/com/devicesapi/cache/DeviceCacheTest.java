@@ -0,0 +1,50 @@
+package com.devicesapi.cache;
+
+import com.devicesapi.dto.response.DeviceResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeviceCacheTest {
+
+    private final DeviceCache deviceCache = new DeviceCache(100);
+
+    @Test
+    void testPut_discardedAfterInvalidationOfSameDevice() {
+        long generation = deviceCache.generation(1L);
+        deviceCache.invalidate(1L);
+
+        deviceCache.put(1L, device(1L), generation);
+
+        assertNull(deviceCache.get(1L));
+    }
+
+    @Test
+    void testPut_keptAfterInvalidationOfOtherDevice() {
+        long generation = deviceCache.generation(1L);
+        deviceCache.invalidate(2L);
+
+        deviceCache.put(1L, device(1L), generation);
+
+        assertNotNull(deviceCache.get(1L));
+    }
+
+    @Test
+    void testPut_discardedAfterInvalidateAll() {
+        long generation = deviceCache.generation(1L);
+        deviceCache.invalidateAll();
+
+        deviceCache.put(1L, device(1L), generation);
+
+        assertNull(deviceCache.get(1L));
+    }
+
+    private static DeviceResponse device(Long id) {
+        return DeviceResponse.builder()
+                .id(id)
+                .name("Phone X")
+                .brand("Samsung")
+                .state("AVAILABLE")
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.devicesapi.cache;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PostgresInvalidationBusTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_retriesIdsWhenPublishingFails() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement notify = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenThrow(new SQLException("connection refused")).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(notify);
+        when(notify.execute()).thenThrow(new SQLException("connection reset")).thenReturn(true);
+        PostgresInvalidationBus bus = new PostgresInvalidationBus(dataSource, new DeviceCache(100),
+                mock(ObjectProvider.class));
+
+        bus.publish(1L);
+        bus.publish(2L);
+        bus.flush(); // no connection
+        bus.flush(); // pg_notify fails
+        bus.flush(); // delivered
+        bus.flush(); // nothing left
+
+        ArgumentCaptor<String> payloads = ArgumentCaptor.forClass(String.class);
+        verify(notify, times(2)).setString(eq(2), payloads.capture());
+        List<String> sent = payloads.getAllValues();
+        String delivered = sent.get(1).substring(sent.get(1).indexOf('|') + 1);
+        assertEquals(List.of("1", "2"), List.of(delivered.split(",")).stream().sorted().toList());
+        verify(dataSource, times(3)).getConnection();
+    }
+}
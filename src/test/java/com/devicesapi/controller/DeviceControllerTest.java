@@ -1,9 +1,15 @@
 package com.devicesapi.controller;
 
+import com.devicesapi.cache.DeviceCache;
+import com.devicesapi.domain.DeviceState;
 import com.devicesapi.dto.request.CreateDeviceRequest;
 import com.devicesapi.dto.request.UpdateDeviceRequest;
+import com.devicesapi.dto.response.DeviceCreationBucketResponse;
+import com.devicesapi.dto.response.DeviceLeaseResponse;
 import com.devicesapi.dto.response.DeviceResponse;
+import com.devicesapi.service.DeviceLeaseService;
 import com.devicesapi.service.DeviceService;
+import com.devicesapi.waiters.DeviceWaiterRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,9 +17,14 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 
@@ -23,6 +34,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(DeviceController.class)
+@Import(DeviceCache.class)
 class DeviceControllerTest {
 
     @Autowired
@@ -34,6 +46,12 @@ class DeviceControllerTest {
     @MockBean
     private DeviceService deviceService;
 
+    @MockBean
+    private DeviceLeaseService deviceLeaseService;
+
+    @MockBean
+    private DeviceWaiterRegistry deviceWaiterRegistry;
+
     @Test
     @DisplayName("POST /devices - success")
     void testCreateDevice() throws Exception {
@@ -100,6 +118,32 @@ class DeviceControllerTest {
                 .andExpect(jsonPath("$[1].id").value(2));
     }
 
+    @Test
+    @DisplayName("GET /devices - body is byte-identical to the bean serializer output")
+    void testGetAllDevices_body() throws Exception {
+        DeviceResponse device1 = DeviceResponse.builder()
+                .id(1L).name("Phone X").brand("Samsung").state("AVAILABLE")
+                .createdAt(Instant.parse("2024-05-01T10:15:30.120Z")).build();
+        DeviceResponse device2 = DeviceResponse.builder()
+                .id(2L).name("Tablet Y").brand("Apple").state("IN_USE")
+                .createdAt(Instant.parse("2024-05-01T10:15:31Z")).build();
+
+        Mockito.when(deviceService.getAllDevices()).thenReturn(List.of(device1, device2));
+
+        String expected = "[{\"id\":1,\"name\":\"Phone X\",\"brand\":\"Samsung\",\"state\":\"AVAILABLE\","
+                + "\"createdAt\":\"2024-05-01T10:15:30.120Z\"},"
+                + "{\"id\":2,\"name\":\"Tablet Y\",\"brand\":\"Apple\",\"state\":\"IN_USE\","
+                + "\"createdAt\":\"2024-05-01T10:15:31Z\"}]";
+
+        mockMvc.perform(get("/devices"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(expected));
+
+        mockMvc.perform(get("/devices"))
+                .andExpect(content().string(expected));
+    }
+
     @Test
     @DisplayName("GET /devices?brand=Samsung - filter by brand")
     void testGetDevicesByBrand() throws Exception {
@@ -128,6 +172,43 @@ class DeviceControllerTest {
                 .andExpect(jsonPath("$[0].state").value("AVAILABLE"));
     }
 
+    @Test
+    @DisplayName("GET /devices?createdAfter=...&createdBefore=... - filter by creation time")
+    void testGetDevicesCreatedBetween() throws Exception {
+        Instant after = Instant.parse("2024-01-01T00:00:00Z");
+        Instant before = Instant.parse("2024-02-01T00:00:00Z");
+        DeviceResponse device1 = DeviceResponse.builder()
+                .id(1L).name("Phone X").brand("Samsung").state("AVAILABLE")
+                .createdAt(Instant.parse("2024-01-15T10:00:00Z")).build();
+
+        Mockito.when(deviceService.getDevicesCreatedBetween(after, before)).thenReturn(List.of(device1));
+
+        mockMvc.perform(get("/devices")
+                        .param("createdAfter", "2024-01-01T00:00:00Z")
+                        .param("createdBefore", "2024-02-01T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+
+    @Test
+    @DisplayName("GET /devices/stats/created?bucket=day - creation histogram")
+    void testCreatedHistogram() throws Exception {
+        Instant after = Instant.parse("2024-01-01T00:00:00Z");
+        Mockito.when(deviceService.getCreationHistogram("day", after, null)).thenReturn(List.of(
+                DeviceCreationBucketResponse.builder().bucketStart(Instant.parse("2024-01-01T00:00:00Z")).count(3).build(),
+                DeviceCreationBucketResponse.builder().bucketStart(Instant.parse("2024-01-02T00:00:00Z")).count(5).build()));
+
+        mockMvc.perform(get("/devices/stats/created")
+                        .param("bucket", "day")
+                        .param("createdAfter", "2024-01-01T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].bucketStart").value("2024-01-01T00:00:00Z"))
+                .andExpect(jsonPath("$[0].count").value(3))
+                .andExpect(jsonPath("$[1].count").value(5));
+    }
+
     @Test
     @DisplayName("PATCH /devices/{id} - update device")
     void testUpdateDevice() throws Exception {
@@ -160,4 +241,69 @@ class DeviceControllerTest {
         mockMvc.perform(delete("/devices/{id}", 1L))
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    @DisplayName("POST /devices/{id}/lease - lease device")
+    void testLeaseDevice() throws Exception {
+        Instant expiresAt = Instant.now().plusSeconds(30);
+        DeviceLeaseResponse response = DeviceLeaseResponse.builder()
+                .deviceId(1L)
+                .expiresAt(expiresAt)
+                .build();
+
+        Mockito.when(deviceLeaseService.leaseDevice(1L, Duration.ofSeconds(30))).thenReturn(response);
+
+        mockMvc.perform(post("/devices/{id}/lease", 1L).param("ttl", "30s"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deviceId").value(1));
+    }
+
+    @Test
+    @DisplayName("DELETE /devices/{id}/lease - release lease")
+    void testReleaseLease() throws Exception {
+        Mockito.doNothing().when(deviceLeaseService).releaseLease(1L);
+
+        mockMvc.perform(delete("/devices/{id}/lease", 1L))
+                .andExpect(status().isNoContent());
+
+        Mockito.verify(deviceLeaseService).releaseLease(1L);
+    }
+
+    @Test
+    @DisplayName("GET /devices/{id}/await - completes asynchronously")
+    void testAwaitDeviceState() throws Exception {
+        DeviceResponse response = DeviceResponse.builder()
+                .id(1L)
+                .name("Phone X")
+                .brand("Samsung")
+                .state("AVAILABLE")
+                .createdAt(Instant.now())
+                .build();
+        DeferredResult<ResponseEntity<DeviceResponse>> deferred = new DeferredResult<>();
+        deferred.setResult(ResponseEntity.ok(response));
+
+        Mockito.when(deviceWaiterRegistry.await(1L, DeviceState.AVAILABLE, Duration.ofSeconds(5))).thenReturn(deferred);
+
+        MvcResult result = mockMvc.perform(get("/devices/{id}/await", 1L)
+                        .param("state", "available")
+                        .param("timeout", "5s"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("AVAILABLE"));
+    }
+
+    @Test
+    @DisplayName("GET /devices/{id}/await - unknown state")
+    void testAwaitDeviceState_invalidState() throws Exception {
+        MvcResult result = mockMvc.perform(get("/devices/{id}/await", 1L).param("state", "BROKEN"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(deviceWaiterRegistry);
+    }
 }
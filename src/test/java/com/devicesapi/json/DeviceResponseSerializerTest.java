@@ -0,0 +1,43 @@
+package com.devicesapi.json;
+
+import com.devicesapi.dto.response.DeviceResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeviceResponseSerializerTest {
+
+    private final ObjectMapper beanMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final ObjectMapper handWrittenMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .addModule(new SimpleModule().addSerializer(new DeviceResponseSerializer()))
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void testSerialize_matchesBeanSerializer() throws Exception {
+        List<DeviceResponse> responses = List.of(
+                DeviceResponse.builder().id(1L).name("Phone X").brand("Samsung").state("AVAILABLE")
+                        .createdAt(Instant.parse("2024-05-01T10:15:30.123456789Z")).build(),
+                DeviceResponse.builder().id(2L).name("Tab \"Y\" \u00e9\n").brand("Apple").state("IN_USE")
+                        .createdAt(Instant.parse("2024-05-01T10:15:30Z")).build(),
+                DeviceResponse.builder().build());
+
+        for (DeviceResponse response : responses) {
+            assertArrayEquals(beanMapper.writeValueAsBytes(response), handWrittenMapper.writeValueAsBytes(response));
+        }
+        assertArrayEquals(beanMapper.writeValueAsBytes(responses), handWrittenMapper.writeValueAsBytes(responses));
+    }
+}
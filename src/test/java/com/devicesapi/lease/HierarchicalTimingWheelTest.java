@@ -0,0 +1,57 @@
+package com.devicesapi.lease;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void testAdvance_firesOnlyDueEntries() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(10, 8, 0);
+        wheel.schedule(1L, 25);
+        wheel.schedule(2L, 55);
+
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(30, expired::add);
+
+        assertEquals(List.of(1L), expired);
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void testAdvance_cascadesFromOverflowLevels() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(10, 4, 0);
+        wheel.schedule(1L, 45);     // second level
+        wheel.schedule(2L, 175);    // third level
+        wheel.schedule(3L, 1_000);  // fourth level
+
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(40, expired::add);
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(50, expired::add);
+        assertEquals(List.of(1L), expired);
+
+        wheel.advance(170, expired::add);
+        assertEquals(List.of(1L), expired);
+
+        wheel.advance(180, expired::add);
+        assertEquals(List.of(1L, 2L), expired);
+
+        wheel.advance(1_010, expired::add);
+        assertEquals(List.of(1L, 2L, 3L), expired);
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    void testSchedule_pastDeadlineRejected() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(10, 8, 100);
+
+        assertFalse(wheel.schedule(1L, 50));
+        assertTrue(wheel.isEmpty());
+    }
+}
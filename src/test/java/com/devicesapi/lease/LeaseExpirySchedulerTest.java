@@ -0,0 +1,112 @@
+package com.devicesapi.lease;
+
+import com.devicesapi.cache.DeviceChangeNotifier;
+import com.devicesapi.repository.DeviceRepository;
+import com.devicesapi.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LeaseExpirySchedulerTest {
+
+    private static final Instant START = Instant.parse("2024-06-01T00:00:00Z");
+
+    private MutableClock clock;
+    private DeviceRepository deviceRepository;
+    private DeviceChangeNotifier deviceChangeNotifier;
+    private LeaseExpiryScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        clock = new MutableClock(START);
+        deviceRepository = mock(DeviceRepository.class);
+        deviceChangeNotifier = mock(DeviceChangeNotifier.class);
+        scheduler = new LeaseExpiryScheduler(deviceRepository, ShardRouter.single(), deviceChangeNotifier,
+                clock, 1000, 8, 500);
+    }
+
+    @Test
+    void testReleaseExpired_releasesDueLeasesOnly() {
+        when(deviceRepository.releaseExpiredLeases(any(), any())).thenReturn(1);
+        scheduler.schedule(1L, START.plusSeconds(2));
+        scheduler.schedule(2L, START.plusSeconds(10));
+
+        clock.advanceSeconds(3);
+        scheduler.releaseExpired();
+
+        verify(deviceRepository).releaseExpiredLeases(List.of(1L), clock.instant());
+        verify(deviceChangeNotifier).deviceChanged(1L);
+        assertEquals(1, scheduler.pending());
+    }
+
+    @Test
+    void testReleaseExpired_renewalReplacesDeadline() {
+        scheduler.schedule(1L, START.plusSeconds(2));
+        scheduler.schedule(1L, START.plusSeconds(6));
+
+        clock.advanceSeconds(3);
+        scheduler.releaseExpired();
+        verify(deviceRepository, never()).releaseExpiredLeases(any(), any());
+
+        clock.advanceSeconds(4);
+        scheduler.releaseExpired();
+        verify(deviceRepository).releaseExpiredLeases(List.of(1L), clock.instant());
+    }
+
+    @Test
+    void testReleaseExpired_failedBatchIsRetried() {
+        when(deviceRepository.releaseExpiredLeases(any(), any()))
+                .thenThrow(new QueryTimeoutException("pool timeout"))
+                .thenReturn(1);
+        scheduler.schedule(1L, START.plusSeconds(2));
+
+        clock.advanceSeconds(3);
+        scheduler.releaseExpired();
+        verifyNoInteractions(deviceChangeNotifier);
+        assertEquals(1, scheduler.pending());
+
+        clock.advanceSeconds(2);
+        scheduler.releaseExpired();
+        verify(deviceRepository, times(2)).releaseExpiredLeases(eq(List.of(1L)), any());
+        verify(deviceChangeNotifier).deviceChanged(1L);
+        assertEquals(0, scheduler.pending());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advanceSeconds(long seconds) {
+            now = now.plusSeconds(seconds);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
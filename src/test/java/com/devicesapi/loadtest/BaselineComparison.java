@@ -0,0 +1,42 @@
+package com.devicesapi.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares a run against a stored baseline. A step regresses when its p99 latency grows by
+ * more than the latency tolerance (and by at least {@link #MIN_LATENCY_DELTA_MILLIS}, so
+ * sub-millisecond noise does not fail the build), or when its successful throughput drops
+ * by more than the throughput tolerance.
+ */
+final class BaselineComparison {
+
+    static final double MIN_LATENCY_DELTA_MILLIS = 2.0;
+
+    private BaselineComparison() {
+    }
+
+    static List<String> regressions(LoadReport.Summary baseline, LoadReport.Summary current,
+                                    double latencyTolerance, double throughputTolerance) {
+        List<String> regressions = new ArrayList<>();
+        baseline.endpoints().forEach((step, expected) -> {
+            LoadReport.EndpointSummary actual = current.endpoints().get(step);
+            if (actual == null) {
+                regressions.add(step + ": no successful requests");
+                return;
+            }
+            double p99Limit = Math.max(expected.p99Millis() * (1 + latencyTolerance),
+                    expected.p99Millis() + MIN_LATENCY_DELTA_MILLIS);
+            if (actual.p99Millis() > p99Limit) {
+                regressions.add(String.format("%s: p99 %.2f ms exceeds %.2f ms (baseline %.2f ms)",
+                        step, actual.p99Millis(), p99Limit, expected.p99Millis()));
+            }
+            double throughputFloor = expected.throughputPerSecond() * (1 - throughputTolerance);
+            if (actual.throughputPerSecond() < throughputFloor) {
+                regressions.add(String.format("%s: %.1f ok/s below %.1f ok/s (baseline %.1f ok/s)",
+                        step, actual.throughputPerSecond(), throughputFloor, expected.throughputPerSecond()));
+            }
+        });
+        return regressions;
+    }
+}
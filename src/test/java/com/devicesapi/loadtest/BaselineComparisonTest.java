@@ -0,0 +1,54 @@
+package com.devicesapi.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaselineComparisonTest {
+
+    @Test
+    void testRegressions_withinTolerance() {
+        LoadReport.Summary baseline = summary(100.0, 10.0);
+        LoadReport.Summary current = summary(98.0, 12.0);
+
+        assertTrue(BaselineComparison.regressions(baseline, current, 0.25, 0.05).isEmpty());
+    }
+
+    @Test
+    void testRegressions_latencyAndThroughput() {
+        LoadReport.Summary baseline = summary(100.0, 10.0);
+        LoadReport.Summary current = summary(80.0, 20.0);
+
+        List<String> regressions = BaselineComparison.regressions(baseline, current, 0.25, 0.05);
+
+        assertEquals(2, regressions.size());
+        assertTrue(regressions.get(0).startsWith("get-by-id: p99"));
+        assertTrue(regressions.get(1).startsWith("get-by-id: 80.0 ok/s"));
+    }
+
+    @Test
+    void testRegressions_ignoresSubMillisecondNoise() {
+        LoadReport.Summary baseline = summary(100.0, 0.5);
+        LoadReport.Summary current = summary(100.0, 1.5);
+
+        assertTrue(BaselineComparison.regressions(baseline, current, 0.25, 0.05).isEmpty());
+    }
+
+    @Test
+    void testRegressions_missingStep() {
+        LoadReport.Summary baseline = summary(100.0, 10.0);
+        LoadReport.Summary current = new LoadReport.Summary("mixed", 200, 60, Map.of());
+
+        assertEquals(List.of("get-by-id: no successful requests"),
+                BaselineComparison.regressions(baseline, current, 0.25, 0.05));
+    }
+
+    private static LoadReport.Summary summary(double throughput, double p99Millis) {
+        LoadReport.EndpointSummary endpoint = new LoadReport.EndpointSummary(
+                (long) throughput * 60, 0, 0, 0, throughput, p99Millis / 2, p99Millis / 1.5, p99Millis, p99Millis, p99Millis);
+        return new LoadReport.Summary("mixed", 200, 60, Map.of("get-by-id", endpoint));
+    }
+}
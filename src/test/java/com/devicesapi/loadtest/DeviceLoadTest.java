@@ -0,0 +1,117 @@
+package com.devicesapi.loadtest;
+
+import com.devicesapi.DevicesApiApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the application against an embedded PostgreSQL, seeds it and replays a scenario
+ * from {@code src/test/resources/loadtest} at a constant arrival rate. Only runs with
+ * {@code mvn test -Pload-test}; tune it with system properties:
+ * <pre>
+ * -Dloadtest.scenario=mixed         scenario file name
+ * -Dloadtest.devices=10000          long-lived seeded devices
+ * -Dloadtest.rate=200               requests per second
+ * -Dloadtest.warmup=10s             unmeasured warm-up at the same rate
+ * -Dloadtest.duration=60s           measured run
+ * -Dloadtest.latency-tolerance=0.25 allowed p99 growth over the baseline
+ * -Dloadtest.throughput-tolerance=0.05 allowed throughput drop below the baseline
+ * -Dloadtest.update-baseline=true   store this run as the new baseline
+ * </pre>
+ * The report is written to {@code target/loadtest/<scenario>-report.json}; baselines live
+ * next to the scenarios as {@code <scenario>-baseline.json}.
+ */
+@Tag("load")
+class DeviceLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceLoadTest.class);
+    private static final Path BASELINES = Path.of("src/test/resources/loadtest");
+    private static final Path REPORTS = Path.of("target/loadtest");
+
+    @TempDir
+    Path auditDirectory;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+
+    @BeforeEach
+    void start() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(DevicesApiApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=",
+                        "--devices.audit.directory=" + auditDirectory,
+                        "--devices.cache.cluster-invalidation.enabled=false",
+                        "--devices.archive.enabled=false",
+                        "--logging.level.com.devicesapi=WARN");
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void testScenario_meetsBaseline() throws Exception {
+        String scenarioName = System.getProperty("loadtest.scenario", "mixed");
+        int devices = Integer.getInteger("loadtest.devices", 10_000);
+        double rate = Double.parseDouble(System.getProperty("loadtest.rate", "200"));
+        Duration warmup = Duration.parse("PT" + System.getProperty("loadtest.warmup", "10s"));
+        Duration duration = Duration.parse("PT" + System.getProperty("loadtest.duration", "60s"));
+        double latencyTolerance = Double.parseDouble(System.getProperty("loadtest.latency-tolerance", "0.25"));
+        double throughputTolerance = Double.parseDouble(System.getProperty("loadtest.throughput-tolerance", "0.05"));
+
+        Scenario scenario = Scenario.load(scenarioName);
+        long offered = (long) (rate * (warmup.toSeconds() + duration.toSeconds()));
+        int deletable = (int) Math.ceil(offered * scenario.shareUsing(SeedData.DELETABLE_ID) * 1.1);
+        SeedData seedData = SeedData.seed(context.getBean(DataSource.class), devices, deletable, 50);
+
+        URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+        OpenModelLoadGenerator generator = new OpenModelLoadGenerator(baseUri, scenario, seedData, 10_000);
+        generator.run(rate, warmup, new LoadReport());
+        LoadReport report = new LoadReport();
+        generator.run(rate, duration, report);
+
+        LoadReport.Summary summary = report.summarize(scenarioName, rate, duration.toSeconds());
+        log.warn(summary.toTable());
+        summary.write(REPORTS.resolve(scenarioName + "-report.json"));
+
+        Path baselineFile = BASELINES.resolve(scenarioName + "-baseline.json");
+        if (Boolean.getBoolean("loadtest.update-baseline")) {
+            summary.write(baselineFile);
+            log.warn("Stored new baseline {}", baselineFile);
+            return;
+        }
+        assertTrue(Files.exists(baselineFile), "No baseline at " + baselineFile
+                + "; review the report and rerun with -Dloadtest.update-baseline=true to store one");
+
+        LoadReport.Summary baseline = LoadReport.Summary.read(baselineFile);
+        assertEquals(baseline.ratePerSecond(), rate, "Baseline was recorded at a different rate");
+        List<String> regressions = BaselineComparison.regressions(baseline, summary, latencyTolerance, throughputTolerance);
+        assertTrue(regressions.isEmpty(), "Regressions against " + baselineFile + ":\n" + String.join("\n", regressions));
+    }
+}
@@ -0,0 +1,109 @@
+package com.devicesapi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-step latency histograms and outcome counters for one measured run.
+ * Latency is recorded in microseconds from each request's intended start time.
+ */
+final class LoadReport {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void recordSuccess(String step, long latencyNanos) {
+        Endpoint endpoint = endpoint(step);
+        endpoint.histogram.recordValue(Math.min(MAX_TRACKABLE_MICROS, Math.max(1, latencyNanos / 1000)));
+    }
+
+    void recordFailure(String step, int status) {
+        Endpoint endpoint = endpoint(step);
+        if (status == 503) {
+            endpoint.shed.increment();
+        } else {
+            endpoint.errors.increment();
+        }
+    }
+
+    void recordSkipped(String step) {
+        endpoint(step).skipped.increment();
+    }
+
+    /** Summarises the run; throughput counts successful responses only. */
+    Summary summarize(String scenario, double rate, double seconds) {
+        Map<String, EndpointSummary> summaries = new TreeMap<>();
+        endpoints.forEach((step, endpoint) -> {
+            Histogram histogram = endpoint.histogram;
+            summaries.put(step, new EndpointSummary(
+                    histogram.getTotalCount(),
+                    endpoint.errors.sum(),
+                    endpoint.shed.sum(),
+                    endpoint.skipped.sum(),
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        });
+        return new Summary(scenario, rate, seconds, summaries);
+    }
+
+    private Endpoint endpoint(String step) {
+        return endpoints.computeIfAbsent(step, s -> new Endpoint());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Endpoint {
+        final Histogram histogram = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder shed = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+    }
+
+    record EndpointSummary(long succeeded, long errors, long shed, long skipped, double throughputPerSecond,
+                           double p50Millis, double p90Millis, double p99Millis, double p999Millis,
+                           double maxMillis) {
+    }
+
+    record Summary(String scenario, double ratePerSecond, double durationSeconds,
+                   Map<String, EndpointSummary> endpoints) {
+
+        static Summary read(Path file) throws IOException {
+            return new ObjectMapper().readValue(file.toFile(), Summary.class);
+        }
+
+        void write(Path file) throws IOException {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+        }
+
+        String toTable() {
+            StringBuilder table = new StringBuilder(String.format(
+                    "%nScenario %s at %.0f req/s for %.0f s%n%-16s %9s %7s %7s %7s %9s %9s %9s %9s %9s %9s%n",
+                    scenario, ratePerSecond, durationSeconds,
+                    "step", "ok", "errors", "shed", "skipped", "ok/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+            endpoints.forEach((step, s) -> table.append(String.format(
+                    "%-16s %9d %7d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    step, s.succeeded(), s.errors(), s.shed(), s.skipped(), s.throughputPerSecond(),
+                    s.p50Millis(), s.p90Millis(), s.p99Millis(), s.p999Millis(), s.maxMillis())));
+            return table.toString();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.devicesapi.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Issues requests at a constant arrival rate regardless of how fast the server answers.
+ * <p>
+ * Request {@code i} is due at {@code start + i / rate}. Its latency is measured from that
+ * due time, not from when it was actually sent, so time spent waiting behind a slow server
+ * is reported instead of silently lowering the offered load (coordinated omission).
+ */
+final class OpenModelLoadGenerator {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUri;
+    private final Scenario scenario;
+    private final SeedData seedData;
+    private final int maxOutstanding;
+    private final HttpClient client;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    OpenModelLoadGenerator(URI baseUri, Scenario scenario, SeedData seedData, int maxOutstanding) {
+        this.baseUri = baseUri;
+        this.scenario = scenario;
+        this.seedData = seedData;
+        this.maxOutstanding = maxOutstanding;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Offers {@code ratePerSecond} requests per second for {@code duration} and waits for
+     * the stragglers.
+     */
+    void run(double ratePerSecond, Duration duration, LoadReport report) throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long total = (long) (duration.toNanos() / (double) intervalNanos);
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long due = start + i * intervalNanos;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Scenario.Step step = scenario.pick();
+                if (outstanding.get() >= maxOutstanding) {
+                    // The client itself is saturated; record it rather than queueing without bound.
+                    report.recordFailure(step.name(), -1);
+                    continue;
+                }
+                outstanding.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        send(step, due, report);
+                    } finally {
+                        outstanding.decrementAndGet();
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(REQUEST_TIMEOUT.toSeconds() * 2, TimeUnit.SECONDS);
+        }
+    }
+
+    private void send(Scenario.Step step, long due, LoadReport report) {
+        String path = seedData.render(step.path());
+        if (path == null) {
+            report.recordSkipped(step.name());
+            return;
+        }
+        String body = seedData.render(step.body());
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(step.method(), HttpRequest.BodyPublishers.ofString(body));
+        } else {
+            request.method(step.method(), HttpRequest.BodyPublishers.noBody());
+        }
+
+        try {
+            HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() < 400) {
+                report.recordSuccess(step.name(), System.nanoTime() - due);
+            } else {
+                report.recordFailure(step.name(), response.statusCode());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            report.recordFailure(step.name(), -1);
+        } catch (Exception e) {
+            report.recordFailure(step.name(), -1);
+        }
+    }
+}
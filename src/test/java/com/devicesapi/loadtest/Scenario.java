@@ -0,0 +1,70 @@
+package com.devicesapi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A weighted traffic mix read from a JSON-lines file on the test classpath, one request
+ * template per line:
+ * <pre>
+ * {"name": "get-by-id", "weight": 60, "method": "GET", "path": "/devices/{id}"}
+ * </pre>
+ * Paths and bodies may use the placeholders resolved by {@link SeedData#render}.
+ */
+record Scenario(String name, List<Step> steps, int totalWeight) {
+
+    record Step(String name, int weight, String method, String path, String body) {
+    }
+
+    static Scenario load(String name) {
+        String resource = "/loadtest/" + name + ".jsonl";
+        ObjectMapper mapper = new ObjectMapper();
+        List<Step> steps = new ArrayList<>();
+        try (InputStream in = Scenario.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Scenario not found: " + resource);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    steps.add(mapper.readValue(line, Step.class));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (steps.isEmpty()) {
+            throw new IllegalArgumentException("Scenario " + name + " has no steps");
+        }
+        return new Scenario(name, List.copyOf(steps), steps.stream().mapToInt(Step::weight).sum());
+    }
+
+    Step pick() {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Step step : steps) {
+            ticket -= step.weight();
+            if (ticket < 0) {
+                return step;
+            }
+        }
+        throw new IllegalStateException("Weights changed while picking");
+    }
+
+    /** Fraction of all requests whose path uses {@code placeholder}. */
+    double shareUsing(String placeholder) {
+        return steps.stream()
+                .filter(step -> step.path().contains(placeholder))
+                .mapToInt(Step::weight)
+                .sum() / (double) totalWeight;
+    }
+}
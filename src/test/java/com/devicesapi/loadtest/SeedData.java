@@ -0,0 +1,118 @@
+package com.devicesapi.loadtest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Seeds the devices table directly over JDBC and resolves scenario placeholders:
+ * <ul>
+ *   <li>{@code {id}} - a random seeded device that is never deleted</li>
+ *   <li>{@code {deletableId}} - a device reserved for exactly one delete</li>
+ *   <li>{@code {brand}} - one of the seeded brands</li>
+ *   <li>{@code {state}} - AVAILABLE or INACTIVE</li>
+ * </ul>
+ */
+final class SeedData {
+
+    static final String DELETABLE_ID = "{deletableId}";
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] STATES = {"AVAILABLE", "INACTIVE"};
+
+    private final long[] ids;
+    private final String[] brands;
+    private final Queue<Long> deletable;
+
+    private SeedData(long[] ids, String[] brands, Queue<Long> deletable) {
+        this.ids = ids;
+        this.brands = brands;
+        this.deletable = deletable;
+    }
+
+    /**
+     * Inserts {@code devices} long-lived devices plus {@code deletable} devices for delete
+     * traffic, with creation times spread over the past year in insertion order.
+     */
+    static SeedData seed(DataSource dataSource, int devices, int deletable, int brandCount) throws SQLException {
+        String[] brands = new String[brandCount];
+        for (int i = 0; i < brandCount; i++) {
+            brands[i] = "Brand-" + i;
+        }
+        Random random = new Random(42);
+        int total = devices + deletable;
+        Instant start = Instant.now().minus(Duration.ofDays(365));
+        long stepMillis = Duration.ofDays(365).toMillis() / Math.max(1, total);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into devices (id, name, brand, state, created_at) " +
+                    "values (nextval('devices_id_seq'), ?, ?, ?, ?)")) {
+                for (int i = 0; i < total; i++) {
+                    insert.setString(1, "Seed device " + i);
+                    insert.setString(2, brands[random.nextInt(brandCount)]);
+                    insert.setString(3, i < devices && random.nextInt(10) == 0 ? "IN_USE" : "AVAILABLE");
+                    insert.setTimestamp(4, Timestamp.from(start.plusMillis(i * stepMillis)));
+                    insert.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+
+            List<Long> all = new ArrayList<>(total);
+            try (Statement select = connection.createStatement();
+                 ResultSet rows = select.executeQuery("select id from devices order by id")) {
+                while (rows.next()) {
+                    all.add(rows.getLong(1));
+                }
+            }
+            connection.commit();
+            try (Statement analyze = connection.createStatement()) {
+                analyze.execute("analyze devices");
+            }
+            connection.commit();
+
+            long[] ids = all.subList(0, devices).stream().mapToLong(Long::longValue).toArray();
+            return new SeedData(ids, brands, new ConcurrentLinkedQueue<>(all.subList(devices, all.size())));
+        }
+    }
+
+    /**
+     * Fills the placeholders of {@code template}, or returns {@code null} when no deletable
+     * device is left.
+     */
+    String render(String template) {
+        if (template == null) {
+            return null;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String rendered = template
+                .replace("{id}", Long.toString(ids[random.nextInt(ids.length)]))
+                .replace("{brand}", brands[random.nextInt(brands.length)])
+                .replace("{state}", STATES[random.nextInt(STATES.length)]);
+        if (rendered.contains(DELETABLE_ID)) {
+            Long id = deletable.poll();
+            if (id == null) {
+                return null;
+            }
+            rendered = rendered.replace(DELETABLE_ID, id.toString());
+        }
+        return rendered;
+    }
+}
@@ -0,0 +1,112 @@
+package com.devicesapi.repository;
+
+import com.devicesapi.DevicesApiApplication;
+import com.devicesapi.dto.request.CreateDeviceRequest;
+import com.devicesapi.dto.response.DeviceResponse;
+import com.devicesapi.service.DeviceService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the application on a database laid out the way Hibernate's {@code ddl-auto} left it
+ * before the schema moved to Flyway, and checks that the migrations bring it up to a schema
+ * that {@code ddl-auto: validate} accepts without losing the existing rows.
+ */
+class BaselineSchemaMigrationTest {
+
+    // What ddl-auto created for the original Device entity: identity ids, no lease or archive columns.
+    private static final String BASELINE_SCHEMA = """
+            create table devices (
+                id bigint generated by default as identity,
+                brand varchar(255) not null,
+                created_at timestamp(6) with time zone not null,
+                name varchar(255) not null,
+                state varchar(255) not null check (state in ('AVAILABLE','IN_USE','INACTIVE')),
+                primary key (id)
+            );
+            insert into devices (brand, created_at, name, state)
+                values ('Samsung', now(), 'Phone X', 'INACTIVE');
+            """;
+
+    @TempDir
+    Path auditDirectory;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+
+    @BeforeEach
+    void start() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(BASELINE_SCHEMA);
+        }
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        if (context != null) {
+            context.close();
+        }
+        postgres.close();
+    }
+
+    @Test
+    void testStartup_migratesBaselineSchema() throws Exception {
+        context = new SpringApplicationBuilder(DevicesApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=",
+                        "--devices.audit.directory=" + auditDirectory,
+                        "--devices.cache.cluster-invalidation.enabled=false",
+                        "--devices.archive.enabled=false");
+        DeviceService deviceService = context.getBean(DeviceService.class);
+
+        DeviceResponse existing = deviceService.getDeviceById(1L);
+        assertEquals("Phone X", existing.getName());
+        assertEquals("INACTIVE", existing.getState());
+
+        CreateDeviceRequest create = new CreateDeviceRequest();
+        create.setName("Phone Y");
+        create.setBrand("Samsung");
+        assertTrue(deviceService.createDevice(create).getId() > 1L);
+
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            assertEquals(List.of("idx_devices_archivable", "idx_devices_brand", "idx_devices_created_at",
+                            "idx_devices_lease_expires_at", "idx_devices_state"),
+                    strings(statement, "select indexname from pg_indexes where tablename = 'devices' "
+                            + "and indexname like 'idx_%' order by indexname"));
+            assertEquals(List.of("0", "1", "2"),
+                    strings(statement, "select version from flyway_schema_history order by installed_rank"));
+            assertEquals(List.of("1"),
+                    strings(statement, "select count(*) from devices where inactive_since is not null"));
+        }
+    }
+
+    private static List<String> strings(Statement statement, String query) throws Exception {
+        List<String> values = new ArrayList<>();
+        try (ResultSet rows = statement.executeQuery(query)) {
+            while (rows.next()) {
+                values.add(rows.getString(1));
+            }
+        }
+        return values;
+    }
+}
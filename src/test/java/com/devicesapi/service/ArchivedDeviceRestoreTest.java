@@ -0,0 +1,136 @@
+package com.devicesapi.service;
+
+import com.devicesapi.DevicesApiApplication;
+import com.devicesapi.dto.request.CreateDeviceRequest;
+import com.devicesapi.dto.request.UpdateDeviceRequest;
+import com.devicesapi.dto.response.DeviceResponse;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Restores the same archived device from two transactions at once on PostgreSQL, where
+ * {@code on conflict} and row locks behave as in production.
+ */
+class ArchivedDeviceRestoreTest {
+
+    @TempDir
+    Path auditDirectory;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void start() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(DevicesApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=",
+                        "--devices.audit.directory=" + auditDirectory,
+                        "--devices.cache.cluster-invalidation.enabled=false",
+                        "--devices.archive.enabled=false");
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        executor.shutdownNow();
+        context.close();
+        postgres.close();
+    }
+
+    @Test
+    void testUpdateDevice_concurrentRestoresOfSameDeviceBothSucceed() throws Exception {
+        DeviceService deviceService = context.getBean(DeviceService.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        Long id = archive(deviceService);
+
+        // The first restore keeps its transaction open until the second is blocked behind it.
+        CountDownLatch restored = new CountDownLatch(1);
+        CountDownLatch secondBlocked = new CountDownLatch(1);
+        Future<DeviceResponse> first = executor.submit(() -> transaction.execute(status -> {
+            DeviceResponse response = deviceService.updateDevice(id, update("First"));
+            restored.countDown();
+            await(secondBlocked);
+            return response;
+        }));
+        assertTrue(restored.await(10, TimeUnit.SECONDS));
+        Future<DeviceResponse> second = executor.submit(() -> deviceService.updateDevice(id, update("Second")));
+        awaitLockWait();
+        secondBlocked.countDown();
+
+        assertEquals("First", first.get(10, TimeUnit.SECONDS).getName());
+        assertEquals("Second", second.get(10, TimeUnit.SECONDS).getName());
+        assertEquals("Second", deviceService.getDeviceById(id).getName());
+        assertEquals(0, count("select count(*) from devices_archive"));
+        assertEquals(1, count("select count(*) from devices where id = " + id));
+    }
+
+    private Long archive(DeviceService deviceService) throws Exception {
+        CreateDeviceRequest create = new CreateDeviceRequest();
+        create.setName("Phone X");
+        create.setBrand("Samsung");
+        Long id = deviceService.createDevice(create).getId();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("insert into devices_archive (id, name, brand, state, created_at, archived_at) "
+                    + "select id, name, brand, state, created_at, now() from devices where id = " + id);
+            statement.execute("delete from devices where id = " + id);
+        }
+        return id;
+    }
+
+    private void awaitLockWait() throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (count("select count(*) from pg_stat_activity where wait_event_type = 'Lock'") == 0) {
+            assertTrue(System.nanoTime() < deadline, "second restore never waited on the first");
+            Thread.sleep(10);
+        }
+    }
+
+    private long count(String query) throws Exception {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(query)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private static UpdateDeviceRequest update(String name) {
+        UpdateDeviceRequest request = new UpdateDeviceRequest();
+        request.setName(name);
+        return request;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
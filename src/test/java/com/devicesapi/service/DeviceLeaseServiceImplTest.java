@@ -0,0 +1,95 @@
+package com.devicesapi.service;
+
+import com.devicesapi.cache.DeviceChangeNotifier;
+import com.devicesapi.domain.Device;
+import com.devicesapi.domain.DeviceState;
+import com.devicesapi.dto.response.DeviceLeaseResponse;
+import com.devicesapi.exceptions.DeviceNotFoundException;
+import com.devicesapi.exceptions.DeviceOperationException;
+import com.devicesapi.lease.LeaseExpiryScheduler;
+import com.devicesapi.repository.DeviceRepository;
+import com.devicesapi.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DeviceLeaseServiceImplTest {
+
+    private DeviceRepository deviceRepository;
+    private LeaseExpiryScheduler leaseExpiryScheduler;
+    private DeviceChangeNotifier deviceChangeNotifier;
+    private DeviceLeaseServiceImpl leaseService;
+
+    @BeforeEach
+    void setup() {
+        deviceRepository = mock(DeviceRepository.class);
+        leaseExpiryScheduler = mock(LeaseExpiryScheduler.class);
+        deviceChangeNotifier = mock(DeviceChangeNotifier.class);
+        leaseService = new DeviceLeaseServiceImpl(deviceRepository, ShardRouter.single(), leaseExpiryScheduler,
+                deviceChangeNotifier, Duration.ofHours(1));
+    }
+
+    // ---------------- LEASE ----------------
+    @Test
+    void testLeaseDevice_success() {
+        when(deviceRepository.acquireLease(eq(1L), any(Instant.class))).thenReturn(1);
+
+        DeviceLeaseResponse response = leaseService.leaseDevice(1L, Duration.ofMinutes(5));
+
+        assertEquals(1L, response.getDeviceId());
+        verify(leaseExpiryScheduler).schedule(1L, response.getExpiresAt());
+        verify(deviceChangeNotifier).deviceChanged(1L);
+    }
+
+    @Test
+    void testLeaseDevice_notAvailable_throws() {
+        Device device = new Device("Phone", "Brand", DeviceState.IN_USE);
+        device.setId(1L);
+
+        when(deviceRepository.acquireLease(eq(1L), any(Instant.class))).thenReturn(0);
+        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+
+        assertThrows(DeviceOperationException.class, () -> leaseService.leaseDevice(1L, Duration.ofMinutes(5)));
+        verifyNoInteractions(leaseExpiryScheduler);
+    }
+
+    @Test
+    void testLeaseDevice_notFound() {
+        when(deviceRepository.acquireLease(eq(1L), any(Instant.class))).thenReturn(0);
+        when(deviceRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(DeviceNotFoundException.class, () -> leaseService.leaseDevice(1L, Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void testLeaseDevice_ttlAboveMax_throws() {
+        assertThrows(DeviceOperationException.class, () -> leaseService.leaseDevice(1L, Duration.ofHours(2)));
+        verifyNoInteractions(deviceRepository);
+    }
+
+    // ---------------- RELEASE ----------------
+    @Test
+    void testReleaseLease_success() {
+        when(deviceRepository.releaseLease(1L)).thenReturn(1);
+
+        leaseService.releaseLease(1L);
+
+        verify(leaseExpiryScheduler).cancel(1L);
+    }
+
+    @Test
+    void testReleaseLease_noActiveLease_throws() {
+        when(deviceRepository.releaseLease(1L)).thenReturn(0);
+        when(deviceRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(DeviceOperationException.class, () -> leaseService.releaseLease(1L));
+    }
+}
@@ -1,17 +1,27 @@
 package com.devicesapi.service;
 
+import com.devicesapi.audit.AuditOperation;
+import com.devicesapi.audit.DeviceAuditLog;
+import com.devicesapi.cache.DeviceCache;
+import com.devicesapi.cache.DeviceChangeNotifier;
+import com.devicesapi.domain.ArchivedDevice;
 import com.devicesapi.domain.Device;
 import com.devicesapi.domain.DeviceState;
 import com.devicesapi.dto.request.CreateDeviceRequest;
 import com.devicesapi.dto.request.UpdateDeviceRequest;
+import com.devicesapi.dto.response.DeviceCreationBucketResponse;
 import com.devicesapi.dto.response.DeviceResponse;
 import com.devicesapi.exceptions.DeviceNotFoundException;
 import com.devicesapi.exceptions.DeviceOperationException;
+import com.devicesapi.repository.ArchivedDeviceRepository;
 import com.devicesapi.repository.DeviceRepository;
+import com.devicesapi.sharding.ShardRouter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -22,12 +32,21 @@ import static org.mockito.Mockito.*;
 class DeviceServiceImplTest {
 
     private DeviceRepository deviceRepository;
+    private ArchivedDeviceRepository archivedDeviceRepository;
+    private DeviceCache deviceCache;
+    private DeviceChangeNotifier deviceChangeNotifier;
+    private DeviceAuditLog deviceAuditLog;
     private DeviceServiceImpl deviceService;
 
     @BeforeEach
     void setup() {
         deviceRepository = mock(DeviceRepository.class);
-        deviceService = new DeviceServiceImpl(deviceRepository);
+        archivedDeviceRepository = mock(ArchivedDeviceRepository.class);
+        deviceCache = new DeviceCache(100);
+        deviceChangeNotifier = mock(DeviceChangeNotifier.class);
+        deviceAuditLog = mock(DeviceAuditLog.class);
+        deviceService = new DeviceServiceImpl(deviceRepository, archivedDeviceRepository, ShardRouter.single(), deviceCache,
+                deviceChangeNotifier, deviceAuditLog);
     }
 
     // ---------------- CREATE ----------------
@@ -83,6 +102,38 @@ class DeviceServiceImplTest {
         assertEquals(1L, response.getId());
     }
 
+    @Test
+    void testGetDeviceById_servedFromCache() {
+        Device device = new Device("Device 1", "BrandX", DeviceState.AVAILABLE);
+        device.setId(1L);
+        device.setCreatedAt(Instant.now());
+
+        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+
+        deviceService.getDeviceById(1L);
+        DeviceResponse response = deviceService.getDeviceById(1L);
+
+        assertEquals(1L, response.getId());
+        verify(deviceRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testGetDeviceById_archived() {
+        ArchivedDevice archived = mock(ArchivedDevice.class);
+        when(archived.getId()).thenReturn(1L);
+        when(archived.getName()).thenReturn("Old Device");
+        when(archived.getBrand()).thenReturn("BrandX");
+        when(archived.getState()).thenReturn(DeviceState.INACTIVE);
+
+        when(deviceRepository.findById(1L)).thenReturn(Optional.empty());
+        when(archivedDeviceRepository.findById(1L)).thenReturn(Optional.of(archived));
+
+        DeviceResponse response = deviceService.getDeviceById(1L);
+
+        assertEquals("Old Device", response.getName());
+        assertEquals("INACTIVE", response.getState());
+    }
+
     @Test
     void testGetDeviceById_notFound() {
         when(deviceRepository.findById(1L)).thenReturn(Optional.empty());
@@ -150,13 +201,53 @@ class DeviceServiceImplTest {
         assertThrows(IllegalArgumentException.class, () -> deviceService.getDevicesByState("XYZ"));
     }
 
+    // ---------------- CREATED AT ----------------
+    @Test
+    void testGetDevicesCreatedBetween_openEndedRange() {
+        Instant after = Instant.parse("2024-01-01T00:00:00Z");
+        Device device = new Device("Device A", "BrandA", DeviceState.AVAILABLE);
+        device.setId(1L);
+        device.setCreatedAt(Instant.parse("2024-01-15T10:00:00Z"));
+
+        when(deviceRepository.getDevicesByCreatedAtGreaterThanEqualAndCreatedAtLessThan(eq(after), any(Instant.class)))
+                .thenReturn(List.of(device));
+
+        List<DeviceResponse> responses = deviceService.getDevicesCreatedBetween(after, null);
+
+        assertEquals(1, responses.size());
+        assertEquals(1L, responses.get(0).getId());
+    }
+
+    @Test
+    void testGetCreationHistogram_day() {
+        Instant after = Instant.parse("2024-01-01T00:00:00Z");
+        Instant before = Instant.parse("2024-01-03T00:00:00Z");
+        when(deviceRepository.countCreatedPerDay(after, before)).thenReturn(List.of(
+                new Object[]{Timestamp.valueOf(LocalDateTime.parse("2024-01-01T00:00:00")), 3L},
+                new Object[]{Timestamp.valueOf(LocalDateTime.parse("2024-01-02T00:00:00")), 5L}));
+
+        List<DeviceCreationBucketResponse> histogram = deviceService.getCreationHistogram("DAY", after, before);
+
+        assertEquals(2, histogram.size());
+        assertEquals(Instant.parse("2024-01-01T00:00:00Z"), histogram.get(0).getBucketStart());
+        assertEquals(3L, histogram.get(0).getCount());
+        assertEquals(Instant.parse("2024-01-02T00:00:00Z"), histogram.get(1).getBucketStart());
+        assertEquals(5L, histogram.get(1).getCount());
+        verify(deviceRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetCreationHistogram_unsupportedBucket() {
+        assertThrows(DeviceOperationException.class, () -> deviceService.getCreationHistogram("week", null, null));
+    }
+
     // ---------------- UPDATE ----------------
     @Test
     void testUpdateDevice_successAllFields() {
         Device device = new Device("Old Name", "Old Brand", DeviceState.AVAILABLE);
         device.setId(1L);
 
-        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+        when(deviceRepository.lockById(1L)).thenReturn(Optional.of(device));
         when(deviceRepository.save(device)).thenReturn(device);
 
         UpdateDeviceRequest request = new UpdateDeviceRequest();
@@ -176,7 +267,7 @@ class DeviceServiceImplTest {
         Device device = new Device("Old Name", "BrandX", DeviceState.IN_USE);
         device.setId(1L);
 
-        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+        when(deviceRepository.lockById(1L)).thenReturn(Optional.of(device));
 
         UpdateDeviceRequest request = new UpdateDeviceRequest();
         request.setName("New Name");
@@ -189,7 +280,62 @@ class DeviceServiceImplTest {
         Device device = new Device("Name", "BrandX", DeviceState.IN_USE);
         device.setId(1L);
 
-        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+        when(deviceRepository.lockById(1L)).thenReturn(Optional.of(device));
+        when(deviceRepository.save(device)).thenReturn(device);
+
+        UpdateDeviceRequest request = new UpdateDeviceRequest();
+        request.setState("AVAILABLE");
+
+        DeviceResponse response = deviceService.updateDevice(1L, request);
+
+        assertEquals("AVAILABLE", response.getState());
+        verify(deviceChangeNotifier).deviceChanged(1L);
+        verify(deviceAuditLog).record(1L, AuditOperation.UPDATE, DeviceState.IN_USE, DeviceState.AVAILABLE);
+    }
+
+    @Test
+    void testUpdateDevice_nameOnly_notAudited() {
+        Device device = new Device("Old Name", "BrandX", DeviceState.AVAILABLE);
+        device.setId(1L);
+
+        when(deviceRepository.lockById(1L)).thenReturn(Optional.of(device));
+        when(deviceRepository.save(device)).thenReturn(device);
+
+        UpdateDeviceRequest request = new UpdateDeviceRequest();
+        request.setName("New Name");
+
+        deviceService.updateDevice(1L, request);
+
+        verify(deviceChangeNotifier).deviceChanged(1L);
+        verifyNoInteractions(deviceAuditLog);
+    }
+
+    @Test
+    void testUpdateDevice_restoresArchivedDevice() {
+        Device device = new Device("Name", "BrandX", DeviceState.INACTIVE);
+        device.setId(1L);
+
+        when(deviceRepository.lockById(1L)).thenReturn(Optional.empty(), Optional.of(device));
+        when(archivedDeviceRepository.copyToDevices(1L)).thenReturn(1);
+        when(deviceRepository.save(device)).thenReturn(device);
+
+        UpdateDeviceRequest request = new UpdateDeviceRequest();
+        request.setState("AVAILABLE");
+
+        DeviceResponse response = deviceService.updateDevice(1L, request);
+
+        assertEquals("AVAILABLE", response.getState());
+        assertNull(device.getInactiveSince());
+        verify(archivedDeviceRepository).deleteArchived(1L);
+    }
+
+    @Test
+    void testUpdateDevice_archivedDeviceRestoredConcurrently() {
+        Device device = new Device("Name", "BrandX", DeviceState.INACTIVE);
+        device.setId(1L);
+
+        when(deviceRepository.lockById(1L)).thenReturn(Optional.empty(), Optional.of(device));
+        when(archivedDeviceRepository.copyToDevices(1L)).thenReturn(0);
         when(deviceRepository.save(device)).thenReturn(device);
 
         UpdateDeviceRequest request = new UpdateDeviceRequest();
@@ -198,11 +344,12 @@ class DeviceServiceImplTest {
         DeviceResponse response = deviceService.updateDevice(1L, request);
 
         assertEquals("AVAILABLE", response.getState());
+        verify(archivedDeviceRepository, never()).deleteArchived(1L);
     }
 
     @Test
     void testUpdateDevice_notFound() {
-        when(deviceRepository.findById(1L)).thenReturn(Optional.empty());
+        when(deviceRepository.lockById(1L)).thenReturn(Optional.empty());
 
         UpdateDeviceRequest request = new UpdateDeviceRequest();
         request.setState("AVAILABLE");
@@ -214,7 +361,7 @@ class DeviceServiceImplTest {
     void testUpdateDevice_invalidState() {
         Device device = new Device("Name", "BrandX", DeviceState.AVAILABLE);
         device.setId(1L);
-        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+        when(deviceRepository.lockById(1L)).thenReturn(Optional.of(device));
 
         UpdateDeviceRequest request = new UpdateDeviceRequest();
         request.setState("XYZ");
@@ -228,11 +375,13 @@ class DeviceServiceImplTest {
         Device device = new Device("Device", "Brand", DeviceState.AVAILABLE);
         device.setId(1L);
 
-        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+        when(deviceRepository.lockById(1L)).thenReturn(Optional.of(device));
 
         deviceService.deleteDevice(1L);
 
         verify(deviceRepository).delete(device);
+        verify(deviceChangeNotifier).deviceChanged(1L);
+        verify(deviceAuditLog).record(1L, AuditOperation.DELETE, DeviceState.AVAILABLE, null);
     }
 
     @Test
@@ -240,14 +389,15 @@ class DeviceServiceImplTest {
         Device device = new Device("Device", "Brand", DeviceState.IN_USE);
         device.setId(1L);
 
-        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+        when(deviceRepository.lockById(1L)).thenReturn(Optional.of(device));
 
         assertThrows(DeviceOperationException.class, () -> deviceService.deleteDevice(1L));
+        verifyNoInteractions(deviceAuditLog);
     }
 
     @Test
     void testDeleteDevice_notFound() {
-        when(deviceRepository.findById(1L)).thenReturn(Optional.empty());
+        when(deviceRepository.lockById(1L)).thenReturn(Optional.empty());
 
         assertThrows(DeviceNotFoundException.class, () -> deviceService.deleteDevice(1L));
     }
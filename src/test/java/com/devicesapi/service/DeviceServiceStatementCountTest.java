@@ -0,0 +1,43 @@
+package com.devicesapi.service;
+
+import com.devicesapi.dto.request.CreateDeviceRequest;
+import com.devicesapi.dto.request.UpdateDeviceRequest;
+import com.devicesapi.dto.response.DeviceResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.devicesapi.sql.SqlStatementAssertions.assertMaxStatements;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DeviceServiceStatementCountTest {
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Test
+    void testDeviceLifecycle_staysWithinStatementBudget() {
+        CreateDeviceRequest create = new CreateDeviceRequest();
+        create.setName("Phone X");
+        create.setBrand("Samsung");
+
+        // sequence value + insert
+        DeviceResponse created = assertMaxStatements(2, () -> deviceService.createDevice(create));
+        Long id = created.getId();
+
+        assertMaxStatements(1, () -> deviceService.getDeviceById(id));
+        assertMaxStatements(0, () -> deviceService.getDeviceById(id));
+        assertMaxStatements(1, () -> deviceService.getAllDevices());
+        assertMaxStatements(1, () -> deviceService.getDevicesByBrand("Samsung"));
+        assertMaxStatements(1, () -> deviceService.getDevicesByState("AVAILABLE"));
+
+        UpdateDeviceRequest update = new UpdateDeviceRequest();
+        update.setState("INACTIVE");
+        // select + update
+        assertMaxStatements(2, () -> deviceService.updateDevice(id, update));
+        // select + delete
+        assertMaxStatements(2, () -> deviceService.deleteDevice(id));
+    }
+}
@@ -0,0 +1,94 @@
+package com.devicesapi.sharding;
+
+import com.devicesapi.domain.Device;
+import com.devicesapi.domain.DeviceState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRouterTest {
+
+    private ExecutorService executor;
+    private ShardRouter shardRouter;
+
+    @BeforeEach
+    void setup() {
+        executor = Executors.newFixedThreadPool(3);
+        shardRouter = new ShardRouter(3, TransactionOperations.withoutTransaction(), executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testShardIds_roundTrip() {
+        long id = ShardIds.encode(42, 5);
+
+        assertEquals(5, ShardIds.shardOf(id));
+        assertTrue(ShardIds.encode(43, 0) > id);
+    }
+
+    @Test
+    void testOnShardOf_setsAndRestoresContext() {
+        long id = ShardIds.encode(7, 2);
+
+        assertEquals(2, shardRouter.onShardOf(id, ShardContext::current));
+        assertNull(ShardContext.current());
+    }
+
+    @Test
+    void testOnInsertShard_roundRobin() {
+        List<Integer> shards = List.of(
+                shardRouter.onInsertShard(ShardContext::current),
+                shardRouter.onInsertShard(ShardContext::current),
+                shardRouter.onInsertShard(ShardContext::current),
+                shardRouter.onInsertShard(ShardContext::current));
+
+        assertEquals(List.of(0, 1, 2, 0), shards);
+    }
+
+    @Test
+    void testScatterGather_mergesAllShardsById() {
+        List<Device> merged = shardRouter.scatterGather(() -> {
+            int shard = ShardContext.current();
+            return List.of(device(ShardIds.encode(3, shard)), device(ShardIds.encode(1, shard)));
+        });
+
+        assertEquals(6, merged.size());
+        for (int i = 1; i < merged.size(); i++) {
+            assertTrue(merged.get(i - 1).getId() < merged.get(i).getId());
+        }
+    }
+
+    @Test
+    void testOnEveryShard_returnsResultsInShardOrder() {
+        List<Integer> shards = shardRouter.onEveryShard(ShardContext::current);
+
+        assertEquals(List.of(0, 1, 2), shards);
+    }
+
+    @Test
+    void testGroupByShard() {
+        Map<Integer, List<Long>> grouped = shardRouter.groupByShard(
+                List.of(ShardIds.encode(1, 0), ShardIds.encode(2, 2), ShardIds.encode(3, 0)));
+
+        assertEquals(List.of(ShardIds.encode(1, 0), ShardIds.encode(3, 0)), grouped.get(0));
+        assertEquals(List.of(ShardIds.encode(2, 2)), grouped.get(2));
+    }
+
+    private static Device device(long id) {
+        Device device = new Device("Device " + id, "Brand", DeviceState.AVAILABLE);
+        device.setId(id);
+        return device;
+    }
+}
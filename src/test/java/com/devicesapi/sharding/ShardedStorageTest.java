@@ -0,0 +1,87 @@
+package com.devicesapi.sharding;
+
+import com.devicesapi.DevicesApiApplication;
+import com.devicesapi.dto.request.CreateDeviceRequest;
+import com.devicesapi.dto.response.DeviceResponse;
+import com.devicesapi.service.DeviceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against several local PostgreSQL databases, listed comma-separated:
+ * {@code DEVICES_IT_SHARD_URLS=jdbc:postgresql://localhost:5432/shard0,jdbc:postgresql://localhost:5432/shard1 mvn test}
+ */
+@EnabledIfEnvironmentVariable(named = "DEVICES_IT_SHARD_URLS", matches = ".+")
+class ShardedStorageTest {
+
+    @TempDir
+    Path auditDirectory;
+
+    private ConfigurableApplicationContext context;
+    private int shardCount;
+
+    @BeforeEach
+    void start() {
+        String[] urls = System.getenv("DEVICES_IT_SHARD_URLS").split(",");
+        shardCount = urls.length;
+        // Command-line arguments, unlike builder properties, take precedence over application.yml.
+        List<String> args = new ArrayList<>(List.of(
+                "--devices.sharding.enabled=true",
+                "--devices.cache.cluster-invalidation.enabled=false",
+                "--devices.audit.directory=" + auditDirectory,
+                "--spring.jpa.show-sql=false"));
+        for (int i = 0; i < urls.length; i++) {
+            args.add("--devices.sharding.shards[" + i + "].url=" + urls[i]);
+            args.add("--devices.sharding.shards[" + i + "].username=postgres");
+            args.add("--devices.sharding.shards[" + i + "].password=postgres");
+        }
+        context = new SpringApplicationBuilder(DevicesApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+
+    @AfterEach
+    void stop() {
+        context.close();
+    }
+
+    @Test
+    void testDevices_spreadAcrossShardsAndMergedById() {
+        DeviceService deviceService = context.getBean(DeviceService.class);
+        String brand = "ShardTest-" + System.nanoTime();
+
+        Set<Integer> shards = new HashSet<>();
+        for (int i = 0; i < shardCount * 2; i++) {
+            CreateDeviceRequest request = new CreateDeviceRequest();
+            request.setName("Device " + i);
+            request.setBrand(brand);
+            DeviceResponse created = deviceService.createDevice(request);
+            shards.add(ShardIds.shardOf(created.getId()));
+            assertEquals(created.getName(), deviceService.getDeviceById(created.getId()).getName());
+        }
+        assertEquals(shardCount, shards.size());
+
+        List<DeviceResponse> byBrand = deviceService.getDevicesByBrand(brand);
+        assertEquals(shardCount * 2, byBrand.size());
+        for (int i = 1; i < byBrand.size(); i++) {
+            assertTrue(byBrand.get(i - 1).getId() < byBrand.get(i).getId());
+        }
+
+        byBrand.forEach(device -> deviceService.deleteDevice(device.getId()));
+        assertTrue(deviceService.getDevicesByBrand(brand).isEmpty());
+    }
+}
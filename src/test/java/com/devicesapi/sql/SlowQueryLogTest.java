@@ -0,0 +1,16 @@
+package com.devicesapi.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogTest {
+
+    @Test
+    void testRedact_masksLiteralsButKeepsIdentifiers() {
+        String sql = "select d1_0.id from devices d1_0 where d1_0.brand = 'O''Brien' and d1_0.id > 42 and d1_0.state = ?";
+
+        assertEquals("select d1_0.id from devices d1_0 where d1_0.brand = '?' and d1_0.id > ? and d1_0.state = ?",
+                SlowQueryLog.redact(sql));
+    }
+}
@@ -0,0 +1,31 @@
+package com.devicesapi.sql;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fails a test when a call executes more JDBC statements on the calling thread than
+ * allowed, e.g. because a change introduced an extra lookup or an N+1 pattern.
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static <T> T assertMaxStatements(int max, Supplier<T> call) {
+        SqlStatistics.Snapshot start = SqlStatistics.snapshot();
+        T result = call.get();
+        long executed = start.elapsed().statements();
+        assertTrue(executed <= max,
+                () -> "Expected at most " + max + " SQL statements but " + executed + " were executed");
+        return result;
+    }
+
+    public static void assertMaxStatements(int max, Runnable call) {
+        assertMaxStatements(max, () -> {
+            call.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,157 @@
+package com.devicesapi.waiters;
+
+import com.devicesapi.domain.DeviceState;
+import com.devicesapi.dto.response.DeviceResponse;
+import com.devicesapi.exceptions.DeviceNotFoundException;
+import com.devicesapi.service.DeviceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DeviceWaiterRegistryTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private DeviceService deviceService;
+    private DeviceWaiterRegistry registry;
+
+    @BeforeEach
+    void setup() {
+        deviceService = mock(DeviceService.class);
+        registry = new DeviceWaiterRegistry(deviceService, Runnable::run, 2, Duration.ofSeconds(60));
+    }
+
+    @Test
+    void testAwait_alreadyInState() {
+        when(deviceService.getDeviceById(1L)).thenReturn(device(1L, "AVAILABLE"));
+
+        DeferredResult<ResponseEntity<DeviceResponse>> result = registry.await(1L, DeviceState.AVAILABLE, TIMEOUT);
+
+        assertEquals(HttpStatus.OK, status(result));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void testSignal_completesMatchingWaitersOnly() {
+        when(deviceService.getDeviceById(1L)).thenReturn(device(1L, "IN_USE"));
+        DeferredResult<ResponseEntity<DeviceResponse>> available = registry.await(1L, DeviceState.AVAILABLE, TIMEOUT);
+        DeferredResult<ResponseEntity<DeviceResponse>> inactive = registry.await(1L, DeviceState.INACTIVE, TIMEOUT);
+        assertFalse(available.hasResult());
+        assertEquals(2, registry.size());
+
+        when(deviceService.getDeviceById(1L)).thenReturn(device(1L, "AVAILABLE"));
+        registry.signal(1L);
+
+        assertEquals(HttpStatus.OK, status(available));
+        assertFalse(inactive.hasResult());
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void testSignal_withoutWaitersDoesNotRead() {
+        registry.signal(1L);
+
+        verifyNoInteractions(deviceService);
+    }
+
+    @Test
+    void testSignal_deletedDeviceFailsWaiters() {
+        when(deviceService.getDeviceById(1L)).thenReturn(device(1L, "IN_USE"));
+        DeferredResult<ResponseEntity<DeviceResponse>> result = registry.await(1L, DeviceState.AVAILABLE, TIMEOUT);
+
+        when(deviceService.getDeviceById(1L)).thenThrow(new DeviceNotFoundException("Device not found"));
+        registry.signal(1L);
+
+        assertEquals(HttpStatus.NOT_FOUND, status(result));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void testSignal_failedReadAsksWaitersToRetry() {
+        when(deviceService.getDeviceById(1L)).thenReturn(device(1L, "IN_USE"));
+        DeferredResult<ResponseEntity<DeviceResponse>> result = registry.await(1L, DeviceState.AVAILABLE, TIMEOUT);
+
+        when(deviceService.getDeviceById(1L)).thenThrow(new IllegalStateException("pool exhausted"));
+        registry.signal(1L);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, status(result));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void testSignal_queuesEachDeviceOnce() {
+        List<Runnable> tasks = new ArrayList<>();
+        registry = new DeviceWaiterRegistry(deviceService, tasks::add, 10, Duration.ofSeconds(60));
+        when(deviceService.getDeviceById(1L)).thenReturn(device(1L, "IN_USE"));
+        DeferredResult<ResponseEntity<DeviceResponse>> result = registry.await(1L, DeviceState.AVAILABLE, TIMEOUT);
+
+        registry.signal(1L);
+        registry.signal(1L);
+        registry.signalAll();
+        assertEquals(1, tasks.size());
+
+        when(deviceService.getDeviceById(1L)).thenReturn(device(1L, "AVAILABLE"));
+        tasks.get(0).run();
+        assertEquals(HttpStatus.OK, status(result));
+    }
+
+    @Test
+    void testAwait_unknownDevice() {
+        when(deviceService.getDeviceById(1L)).thenThrow(new DeviceNotFoundException("Device not found"));
+
+        DeferredResult<ResponseEntity<DeviceResponse>> result = registry.await(1L, DeviceState.AVAILABLE, TIMEOUT);
+
+        assertEquals(HttpStatus.NOT_FOUND, status(result));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void testAwait_rejectsNonPositiveTimeout() {
+        DeferredResult<ResponseEntity<DeviceResponse>> zero = registry.await(1L, DeviceState.AVAILABLE, Duration.ZERO);
+        DeferredResult<ResponseEntity<DeviceResponse>> negative =
+                registry.await(1L, DeviceState.AVAILABLE, Duration.ofSeconds(-1));
+
+        assertEquals(HttpStatus.BAD_REQUEST, status(zero));
+        assertEquals(HttpStatus.BAD_REQUEST, status(negative));
+        assertEquals(0, registry.size());
+        verifyNoInteractions(deviceService);
+    }
+
+    @Test
+    void testAwait_rejectsBeyondCapacity() {
+        when(deviceService.getDeviceById(anyLong())).thenAnswer(call -> device(call.getArgument(0), "IN_USE"));
+        registry.await(1L, DeviceState.AVAILABLE, TIMEOUT);
+        registry.await(2L, DeviceState.AVAILABLE, TIMEOUT);
+
+        DeferredResult<ResponseEntity<DeviceResponse>> result = registry.await(3L, DeviceState.AVAILABLE, TIMEOUT);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, status(result));
+        assertNotNull(((ResponseEntity<?>) result.getResult()).getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(2, registry.size());
+        verify(deviceService, never()).getDeviceById(3L);
+    }
+
+    private static HttpStatus status(DeferredResult<ResponseEntity<DeviceResponse>> result) {
+        assertTrue(result.hasResult());
+        return HttpStatus.valueOf(((ResponseEntity<?>) result.getResult()).getStatusCode().value());
+    }
+
+    private static DeviceResponse device(Long id, String state) {
+        return DeviceResponse.builder()
+                .id(id)
+                .name("Phone X")
+                .brand("Samsung")
+                .state(state)
+                .build();
+    }
+}